@@ -0,0 +1,159 @@
+package com.example.springboot_security_jwt;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 빌드된 애플리케이션(native image 또는 AOT 처리된 JVM 빌드)을 실행하고 HTTP로만 인증 흐름을 검사한다.
+// native image에서는 리플렉션 힌트가 빠진 경로가 실행 중에 실패하므로, jjwt 서명과 검증, Jackson DTO 직렬화,
+// JPA 엔티티 조회와 저장, 경로별 권한 검사, Flyway 스크립트를 모두 한 번 이상 거치도록 구성한다.
+class AuthApiIntegrationTest {
+    private static RunningApplication application;
+    private static String adminToken;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        application = RunningApplication.start();
+        adminToken = JsonPath.read(login("admin", "admin").body(), "$.token");
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        application.close();
+    }
+
+    private static HttpResponse<String> login(String username, String password) throws Exception {
+        return application.post("/api/authenticate", null, "application/json",
+            "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+    }
+
+    private static HttpResponse<String> signup(String username) throws Exception {
+        return application.post("/api/signup", null, "application/json",
+            "{\"username\":\"" + username + "\",\"password\":\"password1\",\"nickname\":\"" + username + "\"}");
+    }
+
+    @Test
+    void adminCanReadOwnProfile() throws Exception {
+        HttpResponse<String> response = application.get("/api/user", adminToken);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat((String) JsonPath.read(response.body(), "$.username")).isEqualTo("admin");
+        List<String> authorities = JsonPath.read(response.body(), "$.authorityDtoSet[*].authorityName");
+        assertThat(authorities).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        HttpResponse<String> response = login("admin", "wrong-password");
+
+        assertThat(response.statusCode()).isEqualTo(401);
+        // 토큰 문제가 아니므로 Bearer challenge 없이 bad_credentials로 알려준다.
+        assertThat(response.headers().firstValue("WWW-Authenticate")).isEmpty();
+        assertThat((String) JsonPath.read(response.body(), "$.error")).isEqualTo("unauthorized");
+        assertThat((String) JsonPath.read(response.body(), "$.reason")).isEqualTo("bad_credentials");
+    }
+
+    @Test
+    void invalidTokenIsRejectedWithJsonBody() throws Exception {
+        HttpResponse<String> response = application.get("/api/user", "not.a.token");
+
+        assertThat(response.statusCode()).isEqualTo(401);
+        assertThat(response.headers().firstValue("WWW-Authenticate")).hasValueSatisfying(value ->
+            assertThat(value).contains("invalid_token"));
+        assertThat((String) JsonPath.read(response.body(), "$.error")).isEqualTo("unauthorized");
+    }
+
+    @Test
+    void signedUpMemberCanLogInButNotUseAdminEndpoints() throws Exception {
+        assertThat(signup("integration-user").statusCode()).isEqualTo(200);
+        assertThat(signup("integration-user").statusCode()).isEqualTo(409);
+
+        HttpResponse<String> loginResponse = login("integration-user", "password1");
+        assertThat(loginResponse.statusCode()).isEqualTo(200);
+        String token = JsonPath.read(loginResponse.body(), "$.token");
+
+        assertThat(application.get("/api/user", token).statusCode()).isEqualTo(200);
+        HttpResponse<String> forbidden = application.get("/api/user/admin", token);
+        assertThat(forbidden.statusCode()).isEqualTo(403);
+        assertThat((String) JsonPath.read(forbidden.body(), "$.reason")).isEqualTo("insufficient_scope");
+    }
+
+    @Test
+    void refreshTokenRotatesAndCannotBeReused() throws Exception {
+        signup("refresh-user");
+        String refreshToken = JsonPath.read(login("refresh-user", "password1").body(), "$.refreshToken");
+        String body = "{\"refreshToken\":\"" + refreshToken + "\"}";
+
+        HttpResponse<String> refreshed = application.post("/api/refresh", null, "application/json", body);
+        assertThat(refreshed.statusCode()).isEqualTo(200);
+        String token = JsonPath.read(refreshed.body(), "$.token");
+        assertThat(application.get("/api/user", token).statusCode()).isEqualTo(200);
+
+        assertThat(application.post("/api/refresh", null, "application/json", body).statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void compactTokenIsAcceptedAndKeepsItsFormatOnRefresh() throws Exception {
+        HttpResponse<String> loginResponse = application.post("/api/authenticate", null, "application/json",
+            "{\"username\":\"admin\",\"password\":\"admin\",\"tokenFormat\":\"compact\"}");
+        String token = JsonPath.read(loginResponse.body(), "$.token");
+        assertThat(token).startsWith("ct.");
+
+        HttpResponse<String> response = application.get("/api/user/admin", token);
+        assertThat(response.statusCode()).isEqualTo(200);
+        List<String> authorities = JsonPath.read(response.body(), "$.authorityDtoSet[*].authorityName");
+        assertThat(authorities).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "A".repeat(86);
+        assertThat(application.get("/api/user", forged).statusCode()).isEqualTo(401);
+
+        String refreshToken = JsonPath.read(loginResponse.body(), "$.refreshToken");
+        HttpResponse<String> refreshed = application.post("/api/refresh", null, "application/json",
+            "{\"refreshToken\":\"" + refreshToken + "\",\"tokenFormat\":\"compact\"}");
+        assertThat((String) JsonPath.read(refreshed.body(), "$.token")).startsWith("ct.");
+    }
+
+    @Test
+    void loggedOutTokenIsRejected() throws Exception {
+        signup("logout-user");
+        String token = JsonPath.read(login("logout-user", "password1").body(), "$.token");
+
+        assertThat(application.post("/api/logout", token, "application/json", "").statusCode()).isEqualTo(204);
+        assertThat(application.get("/api/user", token).statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void nicknameChangeIsVisibleToExistingToken() throws Exception {
+        signup("nickname-user");
+        String token = JsonPath.read(login("nickname-user", "password1").body(), "$.token");
+
+        assertThat(application.patch("/api/user", token, "{\"nickname\":\"renamed\"}").statusCode()).isEqualTo(200);
+        HttpResponse<String> response = application.get("/api/user", token);
+        assertThat((String) JsonPath.read(response.body(), "$.nickname")).isEqualTo("renamed");
+    }
+
+    @Test
+    void importedMembersAreListedAndExported() throws Exception {
+        String ndjson = "{\"username\":\"imported-1\",\"password\":\"password1\",\"nickname\":\"imported-1\"}\n"
+            + "{\"username\":\"imported-2\",\"password\":\"password1\",\"nickname\":\"imported-2\"}\n"
+            + "{\"username\":\"x\",\"password\":\"password1\",\"nickname\":\"x\"}\n";
+
+        HttpResponse<String> imported = application.post("/api/members/import", adminToken, "application/x-ndjson", ndjson);
+        assertThat(imported.statusCode()).isEqualTo(200);
+        assertThat((Integer) JsonPath.read(imported.body(), "$.imported")).isEqualTo(2);
+        assertThat((Integer) JsonPath.read(imported.body(), "$.failed")).isEqualTo(1);
+
+        List<String> usernames = JsonPath.read(application.get("/api/members?size=1000", adminToken).body(),
+            "$.members[*].username");
+        assertThat(usernames).contains("admin", "imported-1", "imported-2");
+
+        HttpResponse<String> export = application.get("/api/members/export", adminToken);
+        assertThat(export.statusCode()).isEqualTo(200);
+        assertThat(export.body().lines()).anyMatch(line -> line.contains("\"imported-2\""));
+    }
+}
\ No newline at end of file
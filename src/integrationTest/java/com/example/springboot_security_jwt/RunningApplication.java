@@ -0,0 +1,127 @@
+package com.example.springboot_security_jwt;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 통합 테스트 대상 애플리케이션을 별도 프로세스로 실행하고 HTTP 요청을 보낸다.
+// integration.binary가 있으면 native image를, 없으면 integration.classpath의 AOT 처리된 JVM 빌드를 실행한다.
+// 데이터베이스는 실행할 때마다 새 디렉터리에 만들어지므로 Flyway 초기 데이터(admin / admin)만 있는 상태로 시작한다.
+final class RunningApplication implements AutoCloseable {
+    // 이 테스트는 main 소스를 클래스패스에 두지 않고 빌드 결과만 실행한다.
+    private static final String MAIN_CLASS = "com.example.springboot_security_jwt.SpringbootSecurityJwtApplication";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final Process process;
+    private final Path directory;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    private RunningApplication(Process process, Path directory, int port) {
+        this.process = process;
+        this.directory = directory;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    static RunningApplication start() throws Exception {
+        Path directory = Files.createTempDirectory("integration-test");
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        String binary = System.getProperty("integration.binary");
+        if (binary != null) {
+            command.add(binary);
+        }
+        else {
+            command.addAll(List.of(ProcessHandle.current().info().command().orElse("java"), "-Dspring.aot.enabled=true",
+                "-cp", System.getProperty("integration.classpath"), MAIN_CLASS));
+        }
+        command.addAll(List.of(
+            "--spring.profiles.active=fast-start",
+            "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("members"),
+            "--jwt.key-store.path=" + directory.resolve("keys"),
+            "--server.port=" + port));
+
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(directory.resolve("application.log").toFile())
+            .start();
+        RunningApplication application = new RunningApplication(process, directory, port);
+        application.awaitHealthy();
+        return application;
+    }
+
+    private void awaitHealthy() throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("애플리케이션이 종료되었습니다.\n" + log());
+            }
+            try {
+                if (get("/actuator/health", null).statusCode() == 200) {
+                    return;
+                }
+            }
+            catch (IOException e) {
+                // 아직 포트가 열리지 않았다.
+            }
+            Thread.sleep(50);
+        }
+        close();
+        throw new IllegalStateException("애플리케이션이 " + STARTUP_TIMEOUT.toSeconds() + "초 안에 시작되지 않았습니다.\n" + log());
+    }
+
+    HttpResponse<String> get(String path, String token) throws Exception {
+        return send(request(path, token).GET());
+    }
+
+    HttpResponse<String> post(String path, String token, String contentType, String body) throws Exception {
+        return send(request(path, token).header("Content-Type", contentType).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    HttpResponse<String> patch(String path, String token, String body) throws Exception {
+        return send(request(path, token).header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    String log() throws IOException {
+        return Files.readString(directory.resolve("application.log"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.springboot_security_jwt.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// 로그인마다 수행되는 BCryptPasswordEncoder.matches()의 비용을 strength별로 측정한다.
+// strength가 1 늘어날 때마다 비용은 두 배가 된다. (import.sql의 admin 계정은 8, 기본값은 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = passwordEncoder.encode("admin");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("admin", encodedPassword);
+    }
+}
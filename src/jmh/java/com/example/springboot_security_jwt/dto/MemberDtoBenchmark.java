@@ -0,0 +1,45 @@
+package com.example.springboot_security_jwt.dto;
+
+import com.example.springboot_security_jwt.entity.Authority;
+import com.example.springboot_security_jwt.entity.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// /api/user 응답을 만들 때마다 수행되는 MemberDto.from()의 비용을 측정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberDtoBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int authorityCount;
+
+    private Member member;
+
+    @Setup
+    public void setUp() {
+        Set<Authority> authorities = new HashSet<>();
+        for (int i = 0; i < authorityCount; i++) {
+            authorities.add(Authority.builder().authorityName("ROLE_BENCHMARK_" + i).build());
+        }
+        member = Member.builder()
+            .memberId(1L)
+            .username("admin")
+            .password("$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi")
+            .nickname("admin")
+            .activated(true)
+            .authorities(authorities)
+            .build();
+    }
+
+    @Benchmark
+    public MemberDto from() {
+        return MemberDto.from(member);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 이미 검증된 Claims로부터 Authentication을 만드는 비용과 할당량(gc.alloc.rate.norm, B/op)을 비교한다.
+// legacy: split(",") + stream + 권한마다 새 SimpleGrantedAuthority + User + UsernamePasswordAuthenticationToken
+// shared: GrantedAuthorities의 공유 권한 목록 + JwtAuthenticationToken
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityDecodingBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int authorityCount;
+
+    private TokenProvider tokenProvider;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(JwtKeyRing.hmac(TokenVerificationBenchmark.SECRET), 86400, VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), TokenVerificationBenchmark.ROLES);
+        tokenProvider.afterPropertiesSet();
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int i = 0; i < authorityCount; i++) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_BENCHMARK_" + i));
+        }
+        token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("admin", null, authorities));
+        claims = tokenProvider.verify(token).getClaims();
+    }
+
+    @Benchmark
+    public Authentication legacy() {
+        Collection<? extends GrantedAuthority> authorities =
+            Arrays.stream(claims.get("auth").toString().split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    @Benchmark
+    public Authentication shared() {
+        return tokenProvider.getAuthentication(token, claims);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 요청 하나의 권한 검사 비용과 할당량(gc.alloc.rate.norm, B/op)을 비교한다.
+// 사용자는 토큰 검증으로 만들어진 JwtAuthenticationToken(ROLE_USER, ROLE_ADMIN)이다.
+// spel: 예전 컨트롤러의 @PreAuthorize("hasAnyRole(...)")를 메서드 보안 인터셉터와 같이 PreAuthorizeAuthorizationManager로 평가
+// authorities: AuthorityAuthorizationManager.hasAnyRole() (예전 hasRole("ADMIN") 경로 규칙, 권한 목록 순회와 문자열 비교)
+// roleBits: RoleAuthorizationManager (토큰 검증 때 계산해 둔 역할 비트 집합과 AND 한 번)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    // user: hasAnyRole('USER','ADMIN') (GET /api/user), admin: hasAnyRole('ADMIN') (GET /api/user/{username})
+    @Param({"user", "admin"})
+    private String rule;
+
+    private Supplier<Authentication> authentication;
+    private PreAuthorizeAuthorizationManager preAuthorizeManager;
+    private MethodInvocation invocation;
+    private AuthorityAuthorizationManager<Object> authorityManager;
+    private RoleAuthorizationManager<Object> roleManager;
+
+    @Setup
+    public void setUp() throws Exception {
+        TokenProvider tokenProvider = new TokenProvider(JwtKeyRing.hmac(TokenVerificationBenchmark.SECRET), 86400,
+            VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), TokenVerificationBenchmark.ROLES);
+        tokenProvider.afterPropertiesSet();
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("admin", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        Authentication verified = tokenProvider.getAuthentication(token, tokenProvider.verify(token).getClaims());
+        authentication = () -> verified;
+
+        String[] roles = rule.equals("user") ? new String[] {"USER", "ADMIN"} : new String[] {"ADMIN"};
+        preAuthorizeManager = new PreAuthorizeAuthorizationManager();
+        invocation = new SimpleMethodInvocation(new SecuredMethods(), SecuredMethods.class.getMethod(rule));
+        authorityManager = AuthorityAuthorizationManager.hasAnyRole(roles);
+        roleManager = RoleAuthorizationManager.hasAnyRole(TokenVerificationBenchmark.ROLES, roles);
+
+        if (!spel().isGranted() || !authorities().isGranted() || !roleBits().isGranted()) {
+            throw new IllegalStateException("권한 검사 결과가 예상과 다릅니다.");
+        }
+    }
+
+    @Benchmark
+    public AuthorizationDecision spel() {
+        return preAuthorizeManager.check(authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision authorities() {
+        return authorityManager.check(authentication, null);
+    }
+
+    @Benchmark
+    public AuthorizationDecision roleBits() {
+        return roleManager.check(authentication, null);
+    }
+
+    // 예전 UserController와 같은 @PreAuthorize 표현식을 가진 메서드이다.
+    public static class SecuredMethods {
+        @PreAuthorize("hasAnyRole('USER','ADMIN')")
+        public void user() {
+        }
+
+        @PreAuthorize("hasAnyRole('ADMIN')")
+        public void admin() {
+        }
+    }
+}
\ No newline at end of file
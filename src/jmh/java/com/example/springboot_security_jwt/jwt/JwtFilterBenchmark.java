@@ -0,0 +1,34 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Authorization 헤더에서 Bearer 토큰을 꺼내는 JwtFilter.resolveToken()의 비용을 측정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"200", "2000"})
+    private int tokenLength;
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        jwtFilter = new JwtFilter(null, null);
+        request = new MockHttpServletRequest("GET", "/api/user");
+        request.addHeader(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + "a".repeat(tokenLength));
+    }
+
+    @Benchmark
+    public String resolveToken() {
+        return jwtFilter.resolveToken(request);
+    }
+}
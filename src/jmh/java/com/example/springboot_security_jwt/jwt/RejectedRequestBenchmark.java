@@ -0,0 +1,120 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.example.springboot_security_jwt.SpringbootSecurityJwtApplication;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// 거절되는 요청(401)의 처리량을 실제 Tomcat 위에서 비교한다.
+// direct: 미리 만들어 둔 JSON 본문을 바로 쓰는 현재 JwtAuthenticationEntryPoint
+// sendError: 이전 방식 (sendError() -> /error 에러 디스패치 -> 필터 체인 재진입 -> BasicErrorController가 JSON 직렬화)
+//
+// invalidToken: 서명이 잘못된 토큰으로 GET /api/user (JwtFilter의 검증 비용 포함)
+// missingToken: Authorization 헤더 없이 GET /api/user
+//
+// 예: ./gradlew jmh -Pjmh.includes=RejectedRequestBenchmark -Pjmh.threads=8
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectedRequestBenchmark {
+    @Param({"direct", "sendError"})
+    public String responseMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest invalidTokenRequest;
+    private HttpRequest missingTokenRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringbootSecurityJwtApplication.class);
+        if (responseMode.equals("sendError")) {
+            builder.sources(SendErrorHandlers.class);
+        }
+        context = builder.run(
+            "--server.port=0",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.me.silvernine=WARN",
+            // 요약 로그가 측정 중에 끼어들지 않도록 한다.
+            "--jwt.failure-log.interval-ms=3600000");
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        // 구조는 올바르지만 서명이 틀린 토큰이다. (만료되지 않음)
+        String token = "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJhZG1pbiIsImF1dGgiOiJST0xFX1VTRVIiLCJleHAiOjQxMDI0NDQ4MDB9."
+            + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        invalidTokenRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/user"))
+            .header(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + token)
+            .GET()
+            .build();
+        missingTokenRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/user")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int invalidToken() throws Exception {
+        return send(invalidTokenRequest);
+    }
+
+    @Benchmark
+    public int missingToken() throws Exception {
+        return send(missingTokenRequest);
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != HttpServletResponse.SC_UNAUTHORIZED) {
+            throw new IllegalStateException("401이 아닌 응답입니다: " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    // 이전 구현과 같은 동작을 하는 처리기이다. @Primary로 등록해서 SecurityConfig가 이 처리기를 사용하게 한다.
+    // jmh 클래스도 컴포넌트 스캔 대상 패키지에 있으므로 @Configuration을 붙이지 않고, sendError 모드에서만 source로 등록한다.
+    static class SendErrorHandlers {
+        @Bean
+        @Primary
+        JwtAuthenticationEntryPoint sendErrorAuthenticationEntryPoint() {
+            return new JwtAuthenticationEntryPoint() {
+                @Override
+                public void commence(HttpServletRequest request, HttpServletResponse response,
+                                     AuthenticationException exception) throws IOException {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                }
+            };
+        }
+
+        @Bean
+        @Primary
+        JwtAccessDeniedHandler sendErrorAccessDeniedHandler() {
+            return new JwtAccessDeniedHandler() {
+                @Override
+                public void handle(HttpServletRequest request, HttpServletResponse response,
+                                   AccessDeniedException exception) throws IOException {
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// jwt.algorithm에 따른 토큰 발급과 검증 비용을 비교한다.
+// RS256, ES256 키는 임시 디렉터리에 생성된 로컬 키 파일을 사용한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+
+    @Param({"HS512", "RS256", "ES256"})
+    private SignatureAlgorithm algorithm;
+
+    private TokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, TokenVerificationBenchmark.SECRET,
+            Files.createTempDirectory("jwt-keys").toString(), true);
+        keyRing.afterPropertiesSet();
+        tokenProvider = new TokenProvider(keyRing, 86400, VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), TokenVerificationBenchmark.ROLES);
+        tokenProvider.afterPropertiesSet();
+
+        authentication = new UsernamePasswordAuthenticationToken("admin", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public JwtVerification verify() {
+        return tokenProvider.verify(token);
+    }
+}
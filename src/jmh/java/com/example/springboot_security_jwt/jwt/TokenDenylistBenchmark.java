@@ -0,0 +1,47 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// JwtFilter가 요청마다 수행하는 폐기 여부 확인 비용을 측정한다.
+// 대부분의 요청에 해당하는 "폐기되지 않은 토큰"은 Bloom filter에서 바로 판정되어야 한다.
+// 동시성은 ./gradlew jmh -Pjmh.threads=N 으로 조절한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenDenylistBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    private int revokedCount;
+
+    private TokenDenylist tokenDenylist;
+    private String activeTokenId;
+    private String revokedTokenId;
+
+    @Setup
+    public void setUp() {
+        tokenDenylist = new TokenDenylist(100_000);
+        long expiresAt = System.currentTimeMillis() + 3_600_000;
+        for (int i = 0; i < revokedCount; i++) {
+            tokenDenylist.revokeToken(UUID.randomUUID().toString(), expiresAt);
+        }
+        revokedTokenId = UUID.randomUUID().toString();
+        tokenDenylist.revokeToken(revokedTokenId, expiresAt);
+        activeTokenId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean activeToken() {
+        return tokenDenylist.isRevoked(activeTokenId, "admin", System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return tokenDenylist.isRevoked(revokedTokenId, "admin", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JWT와 compact 토큰의 크기, 발급 비용, 검증 비용(서명 확인 + Authentication 생성)과 할당량을 비교한다.
+// 토큰은 로그인 응답과 같이 ROLE_USER, ROLE_ADMIN 권한과 닉네임, 프로필 버전을 담는다. 서명은 HS512이다.
+// 토큰 크기는 측정 전에 한 번 출력된다. (format=..., token=...자, Authorization 헤더=...바이트)
+// verify는 VerifiedTokenCache를 끈 상태의 authenticate()이므로 요청마다 처음부터 검증하는 비용이다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFormatBenchmark {
+
+    @Param({"jwt", "compact"})
+    private String format;
+
+    private TokenProvider tokenProvider;
+    private TokenFormat tokenFormat;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(JwtKeyRing.hmac(TokenVerificationBenchmark.SECRET), 1800,
+            VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), TokenVerificationBenchmark.ROLES);
+        tokenProvider.afterPropertiesSet();
+
+        List<GrantedAuthority> authorities =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        MemberPrincipal principal = new MemberPrincipal("admin", "", authorities, "admin", 3);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        tokenFormat = format.equals("compact") ? TokenFormat.COMPACT : TokenFormat.JWT;
+        token = tokenProvider.createToken(authentication, tokenFormat);
+
+        if (!verify().isValid()) {
+            throw new IllegalStateException(format + " 토큰을 검증하지 못했습니다.");
+        }
+        System.out.printf("%nformat=%s, token=%d자, Authorization 헤더=%d바이트%n", format, token.length(),
+            (JwtFilter.AUTHORIZATION_HEADER + ": " + JwtFilter.BEARER_PREFIX + token).getBytes(StandardCharsets.US_ASCII).length);
+    }
+
+    @Benchmark
+    public String create() {
+        return tokenProvider.createToken(authentication, tokenFormat);
+    }
+
+    @Benchmark
+    public JwtVerification verify() {
+        return tokenProvider.authenticate(token);
+    }
+}
\ No newline at end of file
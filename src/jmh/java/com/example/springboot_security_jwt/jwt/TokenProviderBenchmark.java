@@ -0,0 +1,60 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TokenProvider의 요청당 비용(토큰 발급, 검증, Authentication 생성)을 측정한다.
+// subjectLength와 authorityCount로 토큰 크기를 바꿔가며 측정하고, 동시성은 ./gradlew jmh -Pjmh.threads=N 으로 조절한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    @Param({"8", "64", "512"})
+    private int subjectLength;
+
+    @Param({"1", "4", "16"})
+    private int authorityCount;
+
+    private TokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(JwtKeyRing.hmac(TokenVerificationBenchmark.SECRET), 86400, VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), TokenVerificationBenchmark.ROLES);
+        tokenProvider.afterPropertiesSet();
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int i = 0; i < authorityCount; i++) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_BENCHMARK_" + i));
+        }
+        authentication = new UsernamePasswordAuthenticationToken("u".repeat(subjectLength), null, authorities);
+        token = tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+}
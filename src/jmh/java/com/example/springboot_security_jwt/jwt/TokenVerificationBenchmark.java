@@ -0,0 +1,69 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JwtFilter가 요청마다 수행하는 토큰 검증 비용을 비교한다.
+// twoParses: 이전 방식 (validateToken + getAuthentication, 매번 parserBuilder로 파서를 새로 만들고 두 번 파싱)
+// singleParse: verify()로 공유 파서를 사용해 한 번만 파싱한 뒤 Claims를 재사용
+// cachedAuthenticate: VerifiedTokenCache가 켜진 상태의 authenticate() (같은 토큰 반복 요청)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+    static final String SECRET =
+        "c2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQtc2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQK";
+    // authority 테이블의 초기 데이터와 같은 권한 레지스트리이다.
+    static final RoleRegistry ROLES = RoleRegistry.of("ROLE_USER", "ROLE_ADMIN");
+
+    private TokenProvider tokenProvider;
+    private TokenProvider cachingTokenProvider;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(JwtKeyRing.hmac(SECRET), 86400, VerifiedTokenCache.disabled(), new TokenDenylist(100_000), TokenMetrics.noop(), ROLES);
+        tokenProvider.afterPropertiesSet();
+        cachingTokenProvider = new TokenProvider(JwtKeyRing.hmac(SECRET), 86400, new VerifiedTokenCache(true, 10_000), new TokenDenylist(100_000), TokenMetrics.noop(), ROLES);
+        cachingTokenProvider.afterPropertiesSet();
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken("admin", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public Authentication twoParses() {
+        // 이전 TokenProvider.validateToken()
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        // 이전 TokenProvider.getAuthentication()
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return tokenProvider.getAuthentication(token, claims);
+    }
+
+    @Benchmark
+    public Authentication singleParse() {
+        JwtVerification verification = tokenProvider.verify(token);
+        return tokenProvider.getAuthentication(token, verification.getClaims());
+    }
+
+    @Benchmark
+    public Authentication cachedAuthenticate() {
+        return cachingTokenProvider.authenticate(token).getAuthentication();
+    }
+}
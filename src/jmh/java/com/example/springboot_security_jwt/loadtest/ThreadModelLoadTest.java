@@ -0,0 +1,173 @@
+package com.example.springboot_security_jwt.loadtest;
+
+import com.example.springboot_security_jwt.SpringbootSecurityJwtApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 플랫폼 스레드(Tomcat 스레드 풀)와 가상 스레드 모드의 처리량과 지연 시간(p50, p99)을 비교하는 부하 테스트이다.
+// 모드마다 애플리케이션을 임의 포트로 띄우고, 정해진 수의 클라이언트가 정해진 시간 동안 쉬지 않고 요청을 보낸다.
+//
+// 예: ./gradlew loadTest -Pload.concurrency=800 -Pload.duration=30 -Pload.scenario=user
+//
+// 시나리오
+// user: GET /api/user (JWT 인증 + SecurityUtil.getCurrentUsername() + JPA 조회)
+// login: POST /api/authenticate (BCrypt, login.executor가 가득 차면 503)
+//
+// 기본값으로 회원 캐시를 끄고(member.cache.maximum-size=0) 요청마다 데이터베이스를 조회하게 한다.
+// 다른 설정은 -Pload.app-args="--server.tomcat.threads.max=50" 처럼 애플리케이션 인자로 넘길 수 있다.
+public class ThreadModelLoadTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String scenario = System.getProperty("load.scenario", "user");
+        int concurrency = Integer.getInteger("load.concurrency", 400);
+        int warmupSeconds = Integer.getInteger("load.warmup", 5);
+        int durationSeconds = Integer.getInteger("load.duration", 20);
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+        String appArgs = System.getProperty("load.app-args", "").trim();
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.me.silvernine=WARN",
+                "--member.cache.maximum-size=0"));
+            if (!appArgs.isEmpty()) {
+                properties.addAll(Arrays.asList(appArgs.split(" ")));
+            }
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootSecurityJwtApplication.class)
+                .run(properties.toArray(String[]::new))) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+                HttpRequest request = request(scenario, baseUrl, client);
+
+                run(client, request, concurrency, warmupSeconds);
+                Result result = run(client, request, concurrency, durationSeconds);
+                results.add(result.named(mode));
+            }
+        }
+
+        System.out.printf("%nscenario=%s concurrency=%d duration=%ds%n", scenario, concurrency, durationSeconds);
+        System.out.printf("%-10s %12s %10s %10s %10s %10s %10s%n", "mode", "requests/s", "ok", "errors", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.1f %10d %10d %10.2f %10.2f %10.2f%n", result.mode, result.throughput(),
+                result.latenciesNanos.length, result.errors, result.percentileMillis(0.50),
+                result.percentileMillis(0.99), result.percentileMillis(1.0));
+        }
+    }
+
+    private static HttpRequest request(String scenario, String baseUrl, HttpClient client) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\"}"))
+            .build();
+        if (scenario.equals("login")) {
+            return login;
+        }
+        if (!scenario.equals("user")) {
+            throw new IllegalArgumentException("알 수 없는 시나리오입니다: " + scenario);
+        }
+
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(response.body()).get("token").asText();
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/user"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+    }
+
+    // 클라이언트마다 가상 스레드 하나를 사용해서, 부하를 만드는 쪽이 병목이 되지 않도록 한다.
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds) throws Exception {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> new Worker().run(client, request, deadline)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        int total = 0;
+        long errors = 0;
+        for (Future<Worker> future : futures) {
+            total += future.get().count;
+            errors += future.get().errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            System.arraycopy(worker.latenciesNanos, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(null, latencies, errors, elapsedNanos);
+    }
+
+    private static class Worker {
+        private long[] latenciesNanos = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker run(HttpClient client, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long startedAt = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                }
+                catch (Exception e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latenciesNanos.length) {
+                    latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+                }
+                latenciesNanos[count++] = System.nanoTime() - startedAt;
+            }
+            return this;
+        }
+    }
+
+    private record Result(String mode, long[] latenciesNanos, long errors, long elapsedNanos) {
+        Result named(String mode) {
+            return new Result(mode, latenciesNanos, errors, elapsedNanos);
+        }
+
+        double throughput() {
+            return latenciesNanos.length / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.exception.LoginRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// LoginRateLimiter.checkAllowed()가 로그인 요청마다 더하는 비용을 측정한다.
+// sameKey: 모든 스레드가 같은 사용자 이름과 IP를 사용한다. (하나의 버킷에서 CAS 경쟁)
+// distinctKeys: 스레드마다 다른 사용자 이름과 IP를 사용한다.
+// lockedOut: 잠긴 사용자 이름으로 거절되는 경우 (예외 생성 포함)
+// 동시성은 ./gradlew jmh -Pjmh.includes=LoginRateLimiterBenchmark -Pjmh.threads=8 처럼 조절한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+    private static final AtomicInteger threadIds = new AtomicInteger();
+
+    private LoginRateLimiter loginRateLimiter;
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        String username;
+        String clientIp;
+
+        @Setup
+        public void setUp() {
+            int id = threadIds.incrementAndGet();
+            username = "user" + id;
+            clientIp = "10.0.0." + id;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // 허용되는 경로를 측정하기 위해 버킷이 비지 않도록 충분히 크게 잡는다.
+        loginRateLimiter = new LoginRateLimiter(true,
+            Integer.MAX_VALUE, Duration.ofNanos(1), Integer.MAX_VALUE, Duration.ofNanos(1),
+            100_000, Duration.ofMinutes(10), 5, Duration.ofMinutes(10), Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            loginRateLimiter.onFailure("locked");
+        }
+    }
+
+    @Benchmark
+    public void sameKey() {
+        loginRateLimiter.checkAllowed("admin", "127.0.0.1");
+    }
+
+    @Benchmark
+    public void distinctKeys(ThreadKeys keys) {
+        loginRateLimiter.checkAllowed(keys.username, keys.clientIp);
+    }
+
+    @Benchmark
+    public Object lockedOut() {
+        try {
+            loginRateLimiter.checkAllowed("locked", "127.0.0.1");
+            return null;
+        }
+        catch (LoginRateLimitedException e) {
+            return e;
+        }
+    }
+}
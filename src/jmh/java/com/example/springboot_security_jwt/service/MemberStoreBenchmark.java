@@ -0,0 +1,159 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.SpringbootSecurityJwtApplication;
+import com.example.springboot_security_jwt.jwt.JwtFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.AbstractList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// persistent 프로필(파일 H2 + Flyway 스키마)에서 회원이 많을 때의 로그인과 조회 지연 시간을 실제 Tomcat 위에서 측정한다.
+// login: 임의의 회원으로 POST /api/authenticate (username 인덱스 조회, 권한 조인, BCrypt, refresh token 저장)
+// lookup: ADMIN 토큰으로 임의의 회원을 GET /api/user/{username} (username 인덱스 조회와 권한 조인)
+//
+// 회원 캐시(member.cache)와 로그인 시도 제한은 꺼서 요청마다 데이터베이스를 조회하게 한다.
+// 회원은 build/jmh-member-store의 파일 데이터베이스에 한 번만 넣고, 다음 실행부터는 그대로 다시 사용한다.
+// BCrypt 비용이 조회 비용을 가리지 않도록 모든 회원이 strength 4로 만든 같은 해시를 사용한다.
+//
+// 예: ./gradlew jmh -Pjmh.includes=MemberStoreBenchmark -Pjmh.threads=4
+//     ./gradlew jmh -Pjmh.includes=MemberStoreBenchmark -Pjmh.args="-p memberCount=100000"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MemberStoreBenchmark {
+    private static final String PASSWORD = "password";
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    @Param({"1000000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String adminToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        File directory = new File("build/jmh-member-store");
+        String url = "jdbc:h2:file:" + new File(directory, "members-" + memberCount).getAbsolutePath() + ";CACHE_SIZE=65536";
+        context = new SpringApplicationBuilder(SpringbootSecurityJwtApplication.class).run(
+            "--spring.profiles.active=persistent",
+            "--spring.datasource.url=" + url,
+            "--server.port=0",
+            "--logging.level.root=WARN",
+            "--logging.level.me.silvernine=WARN",
+            "--member.cache.maximum-size=0",
+            "--login.rate-limit.enabled=false",
+            // 시드 데이터의 해시와 같은 strength여서 로그인할 때 해시를 다시 만들지 않는다.
+            "--password.bcrypt.strength=4",
+            "--password.bcrypt.target-millis=0");
+
+        seedMembers();
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        adminToken = login("admin", "admin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String login() throws Exception {
+        return login(randomUsername(), PASSWORD);
+    }
+
+    @Benchmark
+    public int lookup() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/user/" + randomUsername()))
+            .header(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + adminToken)
+            .GET()
+            .build();
+        return send(request).length;
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+            .build();
+        JsonNode body = context.getBean(ObjectMapper.class).readTree(send(request));
+        return body.get("token").asText();
+    }
+
+    private byte[] send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("200이 아닌 응답입니다: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String username(int index) {
+        return String.format("bench-%07d", index);
+    }
+
+    private String randomUsername() {
+        return username(ThreadLocalRandom.current().nextInt(memberCount));
+    }
+
+    // 이전 실행에서 넣은 회원은 건너뛰고 모자란 만큼만 SEED_CHUNK_SIZE명씩 batch insert로 넣는다.
+    // persistent 프로필은 auto-commit을 끄므로 chunk마다 TransactionTemplate으로 커밋한다.
+    private void seedMembers() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Integer existing = transactionTemplate.execute(status ->
+            jdbc.queryForObject("SELECT COUNT(*) FROM member WHERE username LIKE 'bench-%'", Integer.class));
+        if (existing >= memberCount) {
+            return;
+        }
+        String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        long start = System.nanoTime();
+        for (int from = existing; from < memberCount; from += SEED_CHUNK_SIZE) {
+            int first = from;
+            int last = Math.min(from + SEED_CHUNK_SIZE, memberCount) - 1;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbc.batchUpdate(
+                    "INSERT INTO member (username, password, nickname, activated, profile_version) VALUES (?, ?, ?, TRUE, 0)",
+                    new AbstractList<Object[]>() {
+                        @Override
+                        public Object[] get(int i) {
+                            String username = username(first + i);
+                            return new Object[]{username, hash, username};
+                        }
+
+                        @Override
+                        public int size() {
+                            return last - first + 1;
+                        }
+                    });
+                // 이름이 0으로 채워진 고정 길이이므로 BETWEEN으로 이번 chunk의 회원만 고를 수 있다.
+                jdbc.update("INSERT INTO user_authority (member_id, authority_name) "
+                        + "SELECT member_id, 'ROLE_USER' FROM member WHERE username BETWEEN ? AND ?",
+                    username(first), username(last));
+            });
+        }
+        System.out.printf("%d명의 회원을 넣었습니다. (%d ms)%n",
+            memberCount - existing, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
\ No newline at end of file
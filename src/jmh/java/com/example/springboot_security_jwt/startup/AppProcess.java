@@ -0,0 +1,121 @@
+package com.example.springboot_security_jwt.startup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 애플리케이션을 별도 프로세스로 실행하고, 프로세스를 시작한 뒤 /actuator/health가 처음 200으로 응답할 때까지
+// 걸린 시간(JVM 시작 포함)을 잰다. StartupReport와 NativeComparison이 사용한다.
+final class AppProcess implements AutoCloseable {
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private final String name;
+    private final Process process;
+    private final String baseUrl;
+    private final long startupMillis;
+
+    private AppProcess(String name, Process process, String baseUrl, long startupMillis) {
+        this.name = name;
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.startupMillis = startupMillis;
+    }
+
+    // command 뒤에 --server.port를 붙여 실행한다. 출력은 버린다.
+    static AppProcess start(String name, List<String> command, HttpClient client) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        String baseUrl = "http://localhost:" + port;
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+            .timeout(Duration.ofSeconds(1))
+            .GET()
+            .build();
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        AppProcess app = null;
+        try {
+            while (System.nanoTime() - startedAt < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(name + " 프로세스가 종료되었습니다. (exit=" + process.exitValue() + ")");
+                }
+                try {
+                    HttpResponse<Void> response = client.send(health, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        app = new AppProcess(name, process, baseUrl, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                        return app;
+                    }
+                }
+                catch (IOException e) {
+                    // 아직 포트가 열리지 않았다.
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(name + "이(가) " + TIMEOUT.toSeconds() + "초 안에 시작되지 않았습니다.");
+        }
+        finally {
+            if (app == null) {
+                stop(process);
+            }
+        }
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    long startupMillis() {
+        return startupMillis;
+    }
+
+    // 현재 RSS(Resident Set Size)를 KB로 반환한다. /proc가 있는 Linux에서만 측정할 수 있고, 그 밖에서는 -1이다.
+    long rssKilobytes() throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // 파일 데이터베이스가 정상적으로 닫히도록 SIGTERM으로 종료하고 기다린다.
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop(process);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.example.springboot_security_jwt.startup;
+
+import com.example.springboot_security_jwt.SpringbootSecurityJwtApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// native image와 JVM 빌드를 같은 fast-start 설정으로 실행해서 시작 시간, RSS, 처리량을 비교한다.
+// ./gradlew nativeComparison으로 실행하며, 결과는 build/reports/startup/native-comparison.txt에 남는다.
+//
+// jvm: AOT 처리된 JVM 빌드 (-Dspring.aot.enabled=true)
+// jvm-cds: jvm에 cdsArchive로 만든 CDS 아카이브 사용
+// native: nativeCompile로 만든 실행 파일
+//
+// 시작 시간과 시작 직후 RSS는 runs번 실행한 값의 중앙값이다. 처리량은 한 번 더 실행해서 ADMIN 토큰으로
+// GET /api/user를 concurrency개의 클라이언트가 duration초 동안 보낸 결과이고, 그 뒤의 RSS도 함께 기록한다.
+// -Pcomparison.targets=jvm,jvm-cds 처럼 일부만 실행할 수 있다. (GraalVM이 없을 때 등)
+public class NativeComparison {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("comparison.classpath");
+        String cdsArchive = System.getProperty("comparison.cds-archive");
+        String binary = System.getProperty("comparison.binary");
+        String[] targets = System.getProperty("comparison.targets", "jvm,jvm-cds,native").split(",");
+        int runs = Integer.getInteger("comparison.runs", 5);
+        int concurrency = Integer.getInteger("comparison.concurrency", 32);
+        int warmupSeconds = Integer.getInteger("comparison.warmup", 5);
+        int durationSeconds = Integer.getInteger("comparison.duration", 20);
+        Path report = Path.of(System.getProperty("comparison.report", "native-comparison.txt"));
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        List<String> lines = new ArrayList<>();
+        for (String target : targets) {
+            List<String> command = new ArrayList<>();
+            switch (target) {
+                case "jvm" -> command.addAll(jvmCommand(classpath, List.of()));
+                case "jvm-cds" -> command.addAll(jvmCommand(classpath,
+                    List.of("-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=off")));
+                case "native" -> command.add(binary);
+                default -> throw new IllegalArgumentException("알 수 없는 대상입니다: " + target);
+            }
+            // 대상마다 새 데이터베이스를 사용한다. 첫 실행에서 Flyway 마이그레이션이 적용되므로 그 실행은 측정하지 않는다.
+            Path directory = Files.createTempDirectory("native-comparison-" + target);
+            command.addAll(List.of("--spring.profiles.active=fast-start",
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("members")));
+
+            AppProcess.start(target, command, client).close();
+            long[] startupMillis = new long[runs];
+            long[] startupRss = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                try (AppProcess app = AppProcess.start(target, command, client)) {
+                    startupMillis[i] = app.startupMillis();
+                    startupRss[i] = app.rssKilobytes();
+                }
+            }
+
+            double throughput;
+            long errors;
+            long loadedRss;
+            try (AppProcess app = AppProcess.start(target, command, client)) {
+                HttpRequest request = userRequest(app, client);
+                load(client, request, concurrency, warmupSeconds);
+                long[] result = load(client, request, concurrency, durationSeconds);
+                throughput = result[0] / (double) durationSeconds;
+                errors = result[1];
+                loadedRss = app.rssKilobytes();
+            }
+
+            String line = String.format("%-10s %12d %16.1f %14.1f %10d %15.1f", target, median(startupMillis),
+                median(startupRss) / 1024.0, throughput, errors, loadedRss / 1024.0);
+            lines.add(line);
+            System.out.println(line);
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("native image vs JVM (java %s, %d cpus, %d startup runs, concurrency=%d duration=%ds)%n",
+            Runtime.version(), Runtime.getRuntime().availableProcessors(), runs, concurrency, durationSeconds));
+        text.append(String.format("%-10s %12s %16s %14s %10s %15s%n",
+            "target", "startup(ms)", "startup RSS(MB)", "requests/s", "errors", "loaded RSS(MB)"));
+        lines.forEach(line -> text.append(line).append(System.lineSeparator()));
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, text);
+        System.out.printf("%n%s%nreport: %s%n", text, report);
+    }
+
+    private static List<String> jvmCommand(String classpath, List<String> jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Dspring.aot.enabled=true");
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, SpringbootSecurityJwtApplication.class.getName()));
+        return command;
+    }
+
+    private static HttpRequest userRequest(AppProcess app, HttpClient client) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(app.baseUrl() + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\"}"))
+            .build();
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(response.body()).get("token").asText();
+        return HttpRequest.newBuilder(URI.create(app.baseUrl() + "/api/user"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+    }
+
+    // 클라이언트마다 가상 스레드 하나로 요청을 쉬지 않고 보낸다. {성공한 요청 수, 실패한 요청 수}를 반환한다.
+    private static long[] load(HttpClient client, HttpRequest request, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] counts = new long[2];
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            counts[response.statusCode() == 200 ? 0 : 1]++;
+                        }
+                        catch (Exception e) {
+                            counts[1]++;
+                        }
+                    }
+                    return counts;
+                }));
+            }
+        }
+        long[] total = new long[2];
+        for (Future<long[]> future : futures) {
+            total[0] += future.get()[0];
+            total[1] += future.get()[1];
+        }
+        return total;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
\ No newline at end of file
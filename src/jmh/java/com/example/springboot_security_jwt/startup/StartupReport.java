@@ -0,0 +1,82 @@
+package com.example.springboot_security_jwt.startup;
+
+import com.example.springboot_security_jwt.SpringbootSecurityJwtApplication;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 설정 조합마다 애플리케이션을 별도의 JVM으로 여러 번 실행해서 시작 시간(AppProcess 참고)을 측정하고
+// 보고서를 남긴다. ./gradlew startupReport로 실행한다.
+//
+// default: 기본 프로필 (메모리 H2, Hibernate 스키마 생성, SQL 로그, H2 콘솔)
+// fast-start: fast-start 프로필 (파일 H2 + Flyway, 지연 초기화, SQL 로그와 H2 콘솔 끔)
+// fast-start+aot: fast-start에 빌드할 때 만든 AOT 빈 정의 사용 (-Dspring.aot.enabled=true)
+// fast-start+aot+cds: fast-start+aot에 cdsArchive로 만든 CDS 아카이브 사용
+public class StartupReport {
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        String cdsArchive = System.getProperty("startup.cds-archive");
+        String datasourceUrl = System.getProperty("startup.datasource-url");
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path report = Path.of(System.getProperty("startup.report", "startup-report.txt"));
+
+        List<String> fastStart = List.of("--spring.profiles.active=fast-start", "--spring.datasource.url=" + datasourceUrl);
+        List<Variant> variants = List.of(
+            new Variant("default", List.of(), List.of()),
+            new Variant("fast-start", List.of(), fastStart),
+            new Variant("fast-start+aot", List.of("-Dspring.aot.enabled=true"), fastStart),
+            new Variant("fast-start+aot+cds",
+                List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=off"), fastStart));
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+        List<Result> results = new ArrayList<>();
+        for (Variant variant : variants) {
+            // 첫 실행은 디스크 캐시 등의 영향을 받으므로 측정하지 않는다.
+            start(variant, classpath, client);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = start(variant, classpath, client);
+            }
+            Arrays.sort(millis);
+            results.add(new Result(variant.name, millis));
+            System.out.printf("%s: %s ms%n", variant.name, Arrays.toString(millis));
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("startup time until /actuator/health responds (java %s, %d cpus, %d runs)%n",
+            Runtime.version(), Runtime.getRuntime().availableProcessors(), runs));
+        text.append(String.format("%-20s %10s %10s %10s%n", "variant", "min(ms)", "median(ms)", "max(ms)"));
+        for (Result result : results) {
+            text.append(String.format("%-20s %10d %10d %10d%n", result.variant, result.millis[0],
+                result.millis[result.millis.length / 2], result.millis[result.millis.length - 1]));
+        }
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, text);
+        System.out.printf("%n%s%nreport: %s%n", text, report);
+    }
+
+    private static long start(Variant variant, String classpath, HttpClient client) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.jvmArgs);
+        command.addAll(List.of("-cp", classpath, SpringbootSecurityJwtApplication.class.getName()));
+        command.addAll(variant.appArgs);
+        try (AppProcess app = AppProcess.start(variant.name, command, client)) {
+            return app.startupMillis();
+        }
+    }
+
+    private record Variant(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    private record Result(String variant, long[] millis) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.springboot_security_jwt.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+// @Async 메서드와 Spring MVC 비동기 요청(Callable 등)이 사용하는 applicationTaskExecutor를 정의한다.
+// spring.threads.virtual.enabled가 true이면 작업마다 가상 스레드를 만들고, false이면 기존처럼 스레드 풀을 사용한다.
+// 두 경우 모두 작업을 맡긴 스레드의 SecurityContext를 작업 스레드로 복사하므로,
+// 비동기 작업 안에서도 SecurityUtil.getCurrentUsername()이 요청한 사용자를 반환한다.
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualThreadTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        // 가상 스레드는 만드는 비용이 작으므로 풀에 보관하지 않고 작업마다 새로 만든다.
+        return new DelegatingSecurityContextAsyncTaskExecutor(builder.build());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformThreadTaskExecutor(ThreadPoolTaskExecutor applicationTaskThreadPool) {
+        return new DelegatingSecurityContextAsyncTaskExecutor(applicationTaskThreadPool);
+    }
+
+    // 실제 스레드 풀이다. 빈으로 등록해야 컨텍스트가 시작될 때 초기화되고 종료될 때 함께 shutdown된다.
+    // SecurityContext를 복사하지 않으므로 비동기 작업은 이 풀이 아니라 applicationTaskExecutor에 맡겨야 한다.
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskThreadPool(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.springboot_security_jwt.config;
+
+import com.example.springboot_security_jwt.entity.Authority;
+import com.example.springboot_security_jwt.jwt.RoleRegistry;
+import com.example.springboot_security_jwt.repository.AuthorityRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuthorizationConfig {
+
+    // authority 테이블의 권한들로 역할 비트 집합의 레지스트리를 만든다. 시작할 때 한 번만 조회한다.
+    // 새 권한을 추가하면 애플리케이션을 다시 시작해야 경로별 권한 규칙에서 사용할 수 있다.
+    @Bean
+    public RoleRegistry roleRegistry(AuthorityRepository authorityRepository) {
+        return RoleRegistry.of(authorityRepository.findAll().stream().map(Authority::getAuthorityName).toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.springboot_security_jwt.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// 현재 하드웨어에서 BCrypt 해시 한 번에 걸리는 시간을 측정해, 목표 시간(밀리초)을 넘지 않는 가장 높은 strength를 고른다.
+// strength가 1 늘어날 때마다 비용이 두 배가 되므로 낮은 strength에서 측정한 값으로 추정한 뒤, 고른 strength에서 한 번 더 확인한다.
+public final class BCryptCostCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+    private static final int PROBE_STRENGTH = 6;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptCostCalibrator() {}
+
+    public static int calibrate(long targetMillis) {
+        // JIT 워밍업을 위해 몇 번 먼저 실행한 뒤 측정한다.
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        for (int i = 0; i < 5; i++) {
+            probe.encode(SAMPLE_PASSWORD);
+        }
+        double probeMillis = measureMillis(PROBE_STRENGTH, 5);
+
+        int strength = MIN_STRENGTH;
+        for (int candidate = MIN_STRENGTH; candidate <= MAX_STRENGTH; candidate++) {
+            double estimated = probeMillis * Math.pow(2, candidate - PROBE_STRENGTH);
+            if (estimated <= targetMillis) {
+                strength = candidate;
+            }
+        }
+
+        // 추정값이 어긋났으면 목표 시간 안에 들어올 때까지 낮춘다.
+        double measured = measureMillis(strength, 1);
+        while (measured > targetMillis && strength > MIN_STRENGTH) {
+            strength--;
+            measured = measureMillis(strength, 1);
+        }
+
+        logger.info("BCrypt strength {}를 선택했습니다. (목표 {}ms, 측정 {}ms)", strength, targetMillis, Math.round(measured));
+        return strength;
+    }
+
+    private static double measureMillis(int strength, int iterations) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+}
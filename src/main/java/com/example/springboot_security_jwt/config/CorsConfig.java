@@ -2,6 +2,7 @@ package com.example.springboot_security_jwt.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -12,15 +13,28 @@ import java.util.Arrays;
 public class CorsConfig {
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        //모든 URL에 앞서 구성한 CORS 정책을 적용
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    // reactive 프로필(WebFlux)에서 사용하는 같은 CORS 정책이다.
+    @Bean
+    @Profile("reactive")
+    public org.springframework.web.cors.reactive.CorsConfigurationSource reactiveCorsConfigurationSource() {
+        org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource source =
+            new org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    private static CorsConfiguration corsConfiguration() {
         CorsConfiguration configuration = new CorsConfiguration();
         //모든 출처에 대해 스크립트 기반의 HTTP 통신 허용
         configuration.setAllowedOrigins(Arrays.asList("*"));
         //HTTP Method에 대한 HTTP 통신 허용
         configuration.setAllowedMethods(Arrays.asList("GET","POST","PATCH","DELETE"));
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        //모든 URL에 앞서 구성한 CORS 정책을 적용
-        source.registerCorsConfiguration("/**", configuration);
-        return source;
+        return configuration;
     }
 }
@@ -0,0 +1,27 @@
+package com.example.springboot_security_jwt.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// spring.main.lazy-initialization이 true(fast-start 프로필)여도 시작할 때 만들어야 하는 빈을 지정한다.
+// @Scheduled 메서드는 빈이 만들어질 때 등록되므로, 지연 초기화되면 그 빈이 처음 사용될 때까지 주기 작업
+// (키 다시 읽기, 만료된 토큰 기록 정리, 검증 실패 요약 로그 등)이 실행되지 않는다.
+// ApplicationReadyEvent를 받는 @EventListener 빈은 이벤트가 발행될 때 만들어지므로 따로 제외하지 않는다.
+@Configuration
+public class LazyInitializationConfig {
+
+    // LazyInitializationBeanFactoryPostProcessor가 다른 빈보다 먼저 찾으므로 static으로 선언한다.
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+            AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
\ No newline at end of file
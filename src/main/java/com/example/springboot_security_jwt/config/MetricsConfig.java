@@ -0,0 +1,24 @@
+package com.example.springboot_security_jwt.config;
+
+import com.example.springboot_security_jwt.jwt.VerifiedTokenCache;
+import com.example.springboot_security_jwt.service.MemberCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // 애플리케이션이 직접 만든 Caffeine 캐시들의 hit, miss, eviction 지표를 등록한다.
+    // /actuator/metrics/cache.gets?tag=cache:member 처럼 조회할 수 있다.
+    @Bean
+    public MeterBinder cacheMetrics(MemberCache memberCache, VerifiedTokenCache verifiedTokenCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, memberCache.getNativeCache(), "member");
+            if (verifiedTokenCache.isEnabled()) {
+                CaffeineCacheMetrics.monitor(registry, verifiedTokenCache.getNativeCache(), "verifiedToken");
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.springboot_security_jwt.config;
+
+import com.example.springboot_security_jwt.dto.*;
+import com.example.springboot_security_jwt.entity.Authority;
+import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.entity.RefreshToken;
+import com.example.springboot_security_jwt.entity.RevokedToken;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.stream.Stream;
+
+// GraalVM native image(./gradlew nativeCompile)에서 리플렉션과 리소스로 접근하는 타입을 빌드할 때 알려준다.
+// native image는 빌드할 때 도달할 수 있는 코드만 포함하므로, 클래스 이름 문자열로 만드는 객체나
+// Jackson이 getter/setter로 읽고 쓰는 DTO는 여기서 등록하지 않으면 실행 중에 찾을 수 없다.
+// JVM으로 실행할 때는 사용되지 않는다.
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.ApplicationRuntimeHints.class)
+public class NativeImageConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        // jjwt 0.11은 Jwts.builder(), Jwts.parserBuilder() 등에서 구현 클래스를 이름으로 찾아 생성하고,
+        // JSON 직렬화 구현(jjwt-jackson)은 ServiceLoader로 찾는다.
+        private static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        // Caffeine은 빌더에 설정한 기능 조합에 맞는 캐시와 노드 클래스를 이름으로 찾아 생성한다.
+        // (S: strong 키/값, M: 최대 크기, S: 통계, A: 접근 후 만료 또는 가변 만료, W: 쓰기 후 만료 / 노드는 P로 시작)
+        // MemberCache, VerifiedTokenCache, LoginRateLimiter가 만드는 조합이다. 빌더 설정을 바꾸면 함께 바꿔야 한다.
+        private static final String[] CAFFEINE_TYPES = {
+            "com.github.benmanes.caffeine.cache.SSSMSW",
+            "com.github.benmanes.caffeine.cache.SSSMSA",
+            "com.github.benmanes.caffeine.cache.SSMSA",
+            "com.github.benmanes.caffeine.cache.PSWMS",
+            "com.github.benmanes.caffeine.cache.PSAMS",
+            "com.github.benmanes.caffeine.cache.PSA"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            Stream.of(JJWT_TYPES).forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+            Stream.of(CAFFEINE_TYPES).forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS));
+
+            // 요청/응답 본문, NDJSON 가져오기와 내보내기에서 Jackson이 사용하는 Lombok DTO (중첩된 타입 포함)
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                MemberDto.class, LoginDto.class, TokenDto.class, RefreshTokenDto.class, AuthorityDto.class,
+                ProfileUpdateDto.class, MemberPageDto.class, MemberImportResult.class);
+
+            // Hibernate가 필드 접근과 기본 생성자로 다루는 엔티티
+            Stream.of(Member.class, Authority.class, RefreshToken.class, RevokedToken.class).forEach(type ->
+                hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+
+            // 기본 프로필에서 Hibernate가 읽는 초기 데이터와 persistent 프로필의 Flyway 스크립트
+            hints.resources().registerPattern("import.sql");
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
\ No newline at end of file
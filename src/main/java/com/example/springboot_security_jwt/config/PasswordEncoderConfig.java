@@ -0,0 +1,45 @@
+package com.example.springboot_security_jwt.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    // 비밀번호 해시 앞에 {bcrypt}, {pbkdf2}, {argon2} 같은 id를 붙여 저장하는 DelegatingPasswordEncoder를 사용한다.
+    // 새 비밀번호는 password.encoder 방식으로 해시하고, 기존 해시는 각자의 방식으로 검증한다.
+    // id가 없는 예전 해시(import.sql의 $2a$08$...)는 BCrypt로 검증한다.
+    // 로그인에 성공했을 때 해시 방식이나 BCrypt strength가 현재 설정과 다르면
+    // CustomUserDetailsService.updatePassword()가 호출되어 새 설정으로 다시 저장된다. 따라서 별도의 마이그레이션이 필요 없다.
+    @Bean
+    public PasswordEncoder passwordEncoder(
+        @Value("${password.encoder:bcrypt}") String encoderId,
+        @Value("${password.bcrypt.strength:10}") int strength,
+        @Value("${password.bcrypt.target-millis:0}") long targetMillis,
+        MeterRegistry meterRegistry
+    ) {
+        // target-millis가 설정되어 있으면 시작할 때 측정해서 strength를 정한다.
+        int bcryptStrength = targetMillis > 0 ? BCryptCostCalibrator.calibrate(targetMillis) : strength;
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = Map.of(
+            "bcrypt", bcrypt,
+            "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+            "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encoderId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        // 해시 생성과 비교에 걸린 시간을 password.encoder 지표로 기록한다.
+        return new TimedPasswordEncoder(passwordEncoder, meterRegistry);
+    }
+}
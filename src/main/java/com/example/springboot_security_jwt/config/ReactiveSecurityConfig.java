@@ -0,0 +1,137 @@
+package com.example.springboot_security_jwt.config;
+
+import com.example.springboot_security_jwt.jwt.InvalidJwtException;
+import com.example.springboot_security_jwt.jwt.JwtFilter;
+import com.example.springboot_security_jwt.jwt.JwtReactiveAuthenticationManager;
+import com.example.springboot_security_jwt.jwt.JwtServerAccessDeniedHandler;
+import com.example.springboot_security_jwt.jwt.JwtServerAuthenticationConverter;
+import com.example.springboot_security_jwt.jwt.JwtServerAuthenticationEntryPoint;
+import com.example.springboot_security_jwt.jwt.RoleAuthorizationManager;
+import com.example.springboot_security_jwt.jwt.RoleRegistry;
+import com.example.springboot_security_jwt.jwt.TokenFailureLog;
+import com.example.springboot_security_jwt.jwt.TokenProvider;
+import com.example.springboot_security_jwt.service.LoginExecutor;
+import com.example.springboot_security_jwt.service.ReactiveMemberDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+
+import java.net.InetSocketAddress;
+
+// reactive 프로필에서 사용하는 WebFlux 보안 설정이다. 서블릿 모드의 SecurityConfig와 같은 규칙을 적용한다.
+// JwtFilter 대신 AuthenticationWebFilter(JwtServerAuthenticationConverter + JwtReactiveAuthenticationManager)가
+// 토큰을 검증하고, 인증 정보는 SecurityContextHolder가 아니라 Reactor Context로 전달된다.
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    // 클래스패스에 Tomcat도 있으므로 Netty를 사용하도록 직접 지정한다.
+    // 이벤트 루프 스레드 수는 reactive.event-loop-threads로 정한다.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+        @Value("${reactive.event-loop-threads:0}") int eventLoopThreads
+    ) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        if (eventLoopThreads > 0) {
+            factory.addServerCustomizers(httpServer ->
+                httpServer.runOn(LoopResources.create("http-nio", eventLoopThreads, true)));
+        }
+        return factory;
+    }
+
+    // /api/authenticate에서 아이디와 비밀번호를 확인하는 인증 매니저이다.
+    // 비밀번호 비교(BCrypt)는 서블릿 모드와 같이 LoginExecutor의 제한된 스레드 풀에서 실행되므로 이벤트 루프를 막지 않는다.
+    // 대기열이 가득 차면 RejectedExecutionException이 발생하고, ReactiveAuthController가 503으로 응답한다.
+    @Bean
+    public ReactiveAuthenticationManager loginAuthenticationManager(
+        ReactiveMemberDetailsService reactiveMemberDetailsService,
+        PasswordEncoder passwordEncoder,
+        LoginExecutor loginExecutor
+    ) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+            new UserDetailsRepositoryReactiveAuthenticationManager(reactiveMemberDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(reactiveMemberDetailsService);
+        authenticationManager.setScheduler(Schedulers.fromExecutor(loginExecutor));
+        return authenticationManager;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(
+        ServerHttpSecurity http,
+        TokenProvider tokenProvider,
+        TokenFailureLog tokenFailureLog,
+        RoleRegistry roleRegistry,
+        CorsConfigurationSource reactiveCorsConfigurationSource
+    ) {
+        // 경로별 권한 규칙은 서블릿 모드와 같이 역할 비트 집합으로 검사한다. (SecurityConfig 참고)
+        RoleAuthorizationManager<AuthorizationContext> userOrAdmin =
+            RoleAuthorizationManager.hasAnyRole(roleRegistry, "USER", "ADMIN");
+        RoleAuthorizationManager<AuthorizationContext> admin =
+            RoleAuthorizationManager.hasAnyRole(roleRegistry, "ADMIN");
+
+        AuthenticationWebFilter jwtAuthenticationFilter =
+            new AuthenticationWebFilter(new JwtReactiveAuthenticationManager(tokenProvider));
+        jwtAuthenticationFilter.setServerAuthenticationConverter(new JwtServerAuthenticationConverter());
+        // 토큰이 유효하지 않으면 JwtFilter와 같이 실패를 TokenFailureLog에 모으고, 인증 없이 다음 필터로 넘긴다.
+        // 인증이 필요한 경로라면 이후 entry point가 exchange 속성에 남긴 실패 이유로 401을 응답하고,
+        // permitAll 경로는 그대로 처리된다.
+        jwtAuthenticationFilter.setAuthenticationFailureHandler((webFilterExchange, exception) -> {
+            ServerWebExchange exchange = webFilterExchange.getExchange();
+            if (exception instanceof InvalidJwtException invalidJwtException) {
+                exchange.getAttributes().put(JwtFilter.FAILURE_REASON_ATTRIBUTE, invalidJwtException.getReason());
+                InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+                tokenFailureLog.record(invalidJwtException.getReason(), exchange.getRequest().getPath().value(),
+                    remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown");
+            }
+            return webFilterExchange.getChain().filter(exchange);
+        });
+
+        http
+            .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource))
+
+            // CSRF 비활성화 (token을 사용하는 방식이기 때문에)
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+
+            // 세션을 사용하지 않으므로 SecurityContext를 저장하지 않는다.
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+
+            // 예외 처리 (서블릿 모드와 같은 JSON 본문으로 응답한다)
+            .exceptionHandling(exceptionHandling -> exceptionHandling
+                .authenticationEntryPoint(new JwtServerAuthenticationEntryPoint())
+                .accessDeniedHandler(new JwtServerAccessDeniedHandler())
+            )
+
+            .authorizeExchange(authorize -> authorize
+                .pathMatchers("/api/authenticate", "/api/signup", "/api/refresh").permitAll()
+                .pathMatchers("/.well-known/jwks.json").permitAll()
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").access(admin)
+                .pathMatchers("/api/user").access(userOrAdmin)
+                .pathMatchers("/api/user/**", "/api/members", "/api/members/**").access(admin)
+                .anyExchange().authenticated()
+            )
+
+            .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION);
+        return http.build();
+    }
+}
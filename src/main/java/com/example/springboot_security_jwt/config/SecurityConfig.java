@@ -3,41 +3,56 @@ package com.example.springboot_security_jwt.config;
 import com.example.springboot_security_jwt.jwt.JwtAccessDeniedHandler;
 import com.example.springboot_security_jwt.jwt.JwtAuthenticationEntryPoint;
 import com.example.springboot_security_jwt.jwt.JwtFilter;
+import com.example.springboot_security_jwt.jwt.RoleAuthorizationManager;
+import com.example.springboot_security_jwt.jwt.RoleRegistry;
+import com.example.springboot_security_jwt.jwt.TokenFailureLog;
 import com.example.springboot_security_jwt.jwt.TokenProvider;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.h2.H2ConsoleProperties;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
-@EnableMethodSecurity
 @AllArgsConstructor
 public class SecurityConfig {
     private final TokenProvider tokenProvider;
+    private final TokenFailureLog tokenFailureLog;
+    private final RoleRegistry roleRegistry;
     private final CorsConfigurationSource corsConfigurationSource;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    private final ObjectProvider<H2ConsoleProperties> h2ConsoleProperties;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtFilter jwtFilter = new JwtFilter(tokenProvider);
+        JwtFilter jwtFilter = new JwtFilter(tokenProvider, tokenFailureLog);
+        // 경로별 권한 규칙은 시작할 때 역할 비트 집합으로 만들어 두고, 요청마다 비트 AND 한 번으로 검사한다.
+        // 컨트롤러의 @PreAuthorize(SpEL)를 대신하므로 메서드 보안(@EnableMethodSecurity)은 사용하지 않는다.
+        RoleAuthorizationManager<RequestAuthorizationContext> userOrAdmin =
+            RoleAuthorizationManager.hasAnyRole(roleRegistry, "USER", "ADMIN");
+        RoleAuthorizationManager<RequestAuthorizationContext> admin =
+            RoleAuthorizationManager.hasAnyRole(roleRegistry, "ADMIN");
+
+        // H2 콘솔 경로는 콘솔이 켜져 있을 때만 허용한다. (persistent 프로필에서는 꺼져 있다)
+        if (h2ConsoleProperties.getIfAvailable() != null) {
+            http.authorizeHttpRequests(authorize -> authorize
+                .requestMatchers(PathRequest.toH2Console()).permitAll()
+            );
+        }
 
         http
             // CORS 설정 추가
@@ -63,8 +78,16 @@ public class SecurityConfig {
             )
 
             .authorizeHttpRequests(authorize -> authorize
-                .requestMatchers("/api/authenticate", "/api/signup").permitAll()
-                .requestMatchers(PathRequest.toH2Console()).permitAll()
+                .requestMatchers("/api/authenticate", "/api/signup", "/api/refresh").permitAll()
+                // 컨트롤러에서 발생한 예외의 상태 코드(401, 409 등)가 그대로 전달되도록 에러 페이지는 허용한다.
+                .requestMatchers("/error").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").access(admin)
+                // 내 정보 조회와 수정(GET, PATCH /api/user)은 user, admin 권한이 있는 사용자만 접근할 수 있다.
+                .requestMatchers("/api/user").access(userOrAdmin)
+                // 다른 회원의 조회, 비활성화와 회원 목록, 가져오기, 내보내기는 admin 권한이 있는 사용자만 접근할 수 있다.
+                .requestMatchers("/api/user/**", "/api/members", "/api/members/**").access(admin)
                 .anyRequest().authenticated()
             )
 
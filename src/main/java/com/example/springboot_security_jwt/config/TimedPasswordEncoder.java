@@ -0,0 +1,55 @@
+package com.example.springboot_security_jwt.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// PasswordEncoder의 encode()와 matches()에 걸린 시간을 password.encoder 지표로 기록한다. (operation=encode|matches)
+// BCrypt strength를 바꿨을 때나 로그인 스레드 풀 크기를 정할 때 실제 해시 비용을 확인하는 데 사용한다.
+class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.encoder")
+            .description("비밀번호 해시 생성과 비교에 걸린 시간")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long startedAt = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        }
+        finally {
+            encodeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long startedAt = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        finally {
+            matchesTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -1,58 +1,146 @@
 package com.example.springboot_security_jwt.controller;
 
 import com.example.springboot_security_jwt.dto.LoginDto;
+import com.example.springboot_security_jwt.dto.RefreshTokenDto;
 import com.example.springboot_security_jwt.dto.TokenDto;
+import com.example.springboot_security_jwt.exception.LoginOverloadedException;
+import com.example.springboot_security_jwt.exception.LoginRateLimitedException;
+import com.example.springboot_security_jwt.jwt.JwtAuthenticationToken;
 import com.example.springboot_security_jwt.jwt.JwtFilter;
 import com.example.springboot_security_jwt.jwt.TokenProvider;
+import com.example.springboot_security_jwt.service.LoginExecutor;
+import com.example.springboot_security_jwt.service.LoginRateLimiter;
+import com.example.springboot_security_jwt.service.RefreshTokenService;
+import com.example.springboot_security_jwt.service.TokenRevocationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
+@Profile("!reactive")
 @AllArgsConstructor
 @RequestMapping("/api")
 public class AuthController {
     private final TokenProvider tokenProvider;
     // Spring Security에서 인증을 처리하는 데 필요한 AuthenticationManager를 빌드하는 도구이다.
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginExecutor loginExecutor;
+    private final LoginRateLimiter loginRateLimiter;
 
+    // 비밀번호 검증은 LoginExecutor의 전용 스레드 풀에서 실행되고, 이 메서드는 CompletableFuture를 바로 반환한다.
+    // 따라서 Tomcat 워커 스레드는 BCrypt 계산을 기다리지 않고 다른 요청을 처리할 수 있다.
+    // 로그인 스레드 풀의 대기열이 가득 차 있으면 BCrypt를 실행하지 않고 즉시 503으로 응답한다.
+    // 그보다 먼저 LoginRateLimiter가 사용자 이름과 IP별 시도 횟수를 확인하고, 초과하면 429로 응답한다.
     @PostMapping("/authenticate")
-    public ResponseEntity<TokenDto> authorize(@Valid @RequestBody LoginDto loginDto) {
+    public CompletableFuture<ResponseEntity<TokenDto>> authorize(@Valid @RequestBody LoginDto loginDto,
+                                                                 HttpServletRequest request) {
+        loginRateLimiter.checkAllowed(loginDto.getUsername(), request.getRemoteAddr());
+
         // 사용자의 자격 증명을 담는 객체이다. 인증 과정에 사용된다.
         UsernamePasswordAuthenticationToken authenticationToken =
             new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword());
 
-        // authenticationManagerBuilder에서 AuthenticationManager 객체를 빌드하여 인증을 수행한다.
-        // 인증이 성공하면 Authentication 객체가 반환된다.
-        // authentication 토큰을 이용해서 authenticate 메소드가 실행이 될때 CustomUserDetailsService의 loadUserByUsername 메소드가 실행이 된다.
-        // 실행이 된 후 authentication 객체를 생성하게 된다.
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        return loginExecutor.submit(() -> {
+            // authenticationManagerBuilder에서 AuthenticationManager 객체를 빌드하여 인증을 수행한다.
+            // 인증이 성공하면 Authentication 객체가 반환된다.
+            // authentication 토큰을 이용해서 authenticate 메소드가 실행이 될때 CustomUserDetailsService의 loadUserByUsername 메소드가 실행이 된다.
+            // 실행이 된 후 authentication 객체를 생성하게 된다.
+            // 인증에 실패하면 AuthenticationException이 요청 처리 쪽으로 전달되어 이전과 같이 401로 응답된다.
+            Authentication authentication;
+            try {
+                authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+            }
+            catch (BadCredentialsException e) {
+                // 연속으로 실패하면 LoginRateLimiter가 이 사용자 이름을 잠근다.
+                loginRateLimiter.onFailure(loginDto.getUsername());
+                throw e;
+            }
+            loginRateLimiter.onSuccess(loginDto.getUsername());
+
+            // 세션을 사용하지 않으므로 SecurityContextHolder에는 저장하지 않는다.
+            // 로그인 스레드는 여러 요청이 돌아가며 사용하므로 ThreadLocal에 인증 정보를 남기면 안 된다.
+
+            // 인증된 사용자의 정보를 기반으로 JWT 토큰을 생성한다.
+            // 클라이언트가 compact 형식을 요청했으면 바이너리 payload를 사용하는 짧은 토큰을 발급한다.
+            String jwt = tokenProvider.createToken(authentication, loginDto.getTokenFormat());
 
-        // Spring Security에서 현재 인증된 사용자의 정보를 저장하고 관리하는 역할을 한다.
-        // 여기에 인증이 완료된 Authentication 객체를 설정하여 해당 사용자가 인증되었음을 저장한다.
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+            // HTTP 응답 헤더를 생성하고 응답 헤더에 Authorization 필드를 추가한다.
+            // 그 값으로 Bearer 타입의 JWT 토큰을 추가한다.
+            // 이로 인해 클라이언트가 응답을 받을 때, 헤더에서 JWT 토큰을 확인할 수 있다.
+            HttpHeaders httpHeaders = new HttpHeaders();
+            httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + jwt);
+
+            // 액세스 토큰이 만료되면 비밀번호 없이 새 토큰을 받을 수 있도록 refresh token을 함께 발급한다.
+            String refreshToken = refreshTokenService.issue(authentication.getName());
+
+            // TokenDto 객체에 JWT 토큰과 refresh token을 담아 응답 본문으로 반환한다.
+            return new ResponseEntity<>(new TokenDto(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+        });
+    }
 
-        // 인증된 사용자의 정보를 기반으로 JWT 토큰을 생성한다.
-        String jwt = tokenProvider.createToken(authentication);
+    // refresh token으로 새 액세스 토큰과 새 refresh token을 발급한다.
+    // 비밀번호 검증(BCrypt)을 하지 않으므로 로그인보다 훨씬 저렴하다. 사용된 refresh token은 다시 사용할 수 없다.
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenDto> refresh(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        TokenDto tokenDto = refreshTokenService.rotate(refreshTokenDto.getRefreshToken(),
+            refreshTokenDto.getTokenFormat());
 
-        // HTTP 응답 헤더를 생성하고 응답 헤더에 Authorization 필드를 추가한다.
-        // 그 값으로 Bearer 타입의 JWT 토큰을 추가한다.
-        // 이로 인해 클라이언트가 응답을 받을 때, 헤더에서 JWT 토큰을 확인할 수 있다.
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + tokenDto.getToken());
+
+        return new ResponseEntity<>(tokenDto, httpHeaders, HttpStatus.OK);
+    }
+
+    // 현재 요청에 사용된 액세스 토큰을 폐기하고, 사용자의 refresh token도 모두 폐기한다.
+    // jti가 없는 예전 토큰이면 사용자에게 발급된 액세스 토큰 전체를 폐기한다.
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            if (jwtAuthentication.getTokenId() != null) {
+                tokenRevocationService.revokeToken(jwtAuthentication.getTokenId(), jwtAuthentication.getName(),
+                    jwtAuthentication.getExpiresAtMillis());
+            }
+            else {
+                tokenRevocationService.revokeUser(jwtAuthentication.getName());
+            }
+        }
+        refreshTokenService.revokeAll(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // 로그인 시도가 너무 많거나 잠긴 사용자 이름이면 BCrypt를 실행하지 않고 429와 Retry-After 헤더로 응답한다.
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<Void> loginRateLimited(LoginRateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .build();
+    }
 
-        // TokenDto 객체에 JWT 토큰을 담아 응답 본문으로 반환한다.
-        return new ResponseEntity<>(new TokenDto(jwt), httpHeaders, HttpStatus.OK);
+    // 로그인 스레드 풀이 가득 찼을 때 BCrypt를 실행하지 않고 바로 503과 Retry-After 헤더로 응답한다.
+    @ExceptionHandler(LoginOverloadedException.class)
+    public ResponseEntity<Void> loginOverloaded(LoginOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .build();
     }
 }
 
@@ -0,0 +1,28 @@
+package com.example.springboot_security_jwt.controller;
+
+import com.example.springboot_security_jwt.jwt.JwtKeyRing;
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@AllArgsConstructor
+public class JwksController {
+    private final JwtKeyRing keyRing;
+
+    // 토큰 검증에 사용하는 공개키 목록(JWKS)을 반환한다.
+    // 다른 서비스는 이 키로 토큰을 직접 검증할 수 있으므로 매번 이 서비스에 검증을 요청할 필요가 없다.
+    // 본문은 키가 바뀔 때만 다시 만들어지는 미리 직렬화된 바이트 배열이다.
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(keyRing.getJwks());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.springboot_security_jwt.controller;
+
+import com.example.springboot_security_jwt.dto.LoginDto;
+import com.example.springboot_security_jwt.dto.RefreshTokenDto;
+import com.example.springboot_security_jwt.dto.TokenDto;
+import com.example.springboot_security_jwt.exception.LoginOverloadedException;
+import com.example.springboot_security_jwt.exception.LoginRateLimitedException;
+import com.example.springboot_security_jwt.jwt.JwtAuthenticationToken;
+import com.example.springboot_security_jwt.jwt.JwtFilter;
+import com.example.springboot_security_jwt.jwt.TokenProvider;
+import com.example.springboot_security_jwt.service.LoginExecutor;
+import com.example.springboot_security_jwt.service.LoginRateLimiter;
+import com.example.springboot_security_jwt.service.RefreshTokenService;
+import com.example.springboot_security_jwt.service.TokenRevocationService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.RejectedExecutionException;
+
+// reactive 프로필에서 사용하는 AuthController이다. 경로와 응답 형식은 서블릿 모드와 같다.
+// 비밀번호 검증은 LoginExecutor에서, JPA를 사용하는 refresh token 저장과 폐기는 boundedElastic 스케줄러에서 실행해
+// 이벤트 루프 스레드가 블로킹되지 않도록 한다.
+@RestController
+@Profile("reactive")
+@AllArgsConstructor
+@RequestMapping("/api")
+public class ReactiveAuthController {
+    private final TokenProvider tokenProvider;
+    // ReactiveSecurityConfig.loginAuthenticationManager()에서 만든 아이디/비밀번호 인증 매니저이다.
+    private final ReactiveAuthenticationManager loginAuthenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginExecutor loginExecutor;
+    private final LoginRateLimiter loginRateLimiter;
+
+    @PostMapping("/authenticate")
+    public Mono<ResponseEntity<TokenDto>> authorize(@Valid @RequestBody LoginDto loginDto, ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        loginRateLimiter.checkAllowed(loginDto.getUsername(),
+            remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown");
+
+        UsernamePasswordAuthenticationToken authenticationToken =
+            new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword());
+
+        return loginAuthenticationManager.authenticate(authenticationToken)
+            // 로그인 스레드 풀의 대기열이 가득 차 있으면 503으로 응답한다.
+            .onErrorMap(RejectedExecutionException.class, e -> loginExecutor.overloaded())
+            .doOnError(BadCredentialsException.class, e -> loginRateLimiter.onFailure(loginDto.getUsername()))
+            .doOnNext(authentication -> loginRateLimiter.onSuccess(loginDto.getUsername()))
+            .publishOn(Schedulers.boundedElastic())
+            .map(authentication -> {
+                String jwt = tokenProvider.createToken(authentication, loginDto.getTokenFormat());
+                String refreshToken = refreshTokenService.issue(authentication.getName());
+
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + jwt);
+                return new ResponseEntity<>(new TokenDto(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+            });
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<TokenDto>> refresh(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        return Mono.fromCallable(() -> refreshTokenService.rotate(refreshTokenDto.getRefreshToken(),
+                refreshTokenDto.getTokenFormat()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(tokenDto -> {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + tokenDto.getToken());
+                return new ResponseEntity<>(tokenDto, httpHeaders, HttpStatus.OK);
+            });
+    }
+
+    // 현재 요청에 사용된 액세스 토큰과 사용자의 refresh token을 모두 폐기한다. (AuthController.logout 참고)
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout() {
+        return ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .flatMap(authentication -> Mono.fromRunnable(() -> {
+                if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+                    if (jwtAuthentication.getTokenId() != null) {
+                        tokenRevocationService.revokeToken(jwtAuthentication.getTokenId(), jwtAuthentication.getName(),
+                            jwtAuthentication.getExpiresAtMillis());
+                    }
+                    else {
+                        tokenRevocationService.revokeUser(jwtAuthentication.getName());
+                    }
+                }
+                refreshTokenService.revokeAll(authentication.getName());
+            }).subscribeOn(Schedulers.boundedElastic()))
+            .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    // WebFlux에는 ExceptionTranslationFilter가 로그인 실패를 401로 바꿔 주는 과정이 없으므로 직접 처리한다.
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Void> authenticationFailed(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<Void> loginRateLimited(LoginRateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .build();
+    }
+
+    @ExceptionHandler(LoginOverloadedException.class)
+    public ResponseEntity<Void> loginOverloaded(LoginOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .build();
+    }
+}
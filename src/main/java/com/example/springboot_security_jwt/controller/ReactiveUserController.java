@@ -0,0 +1,115 @@
+package com.example.springboot_security_jwt.controller;
+
+import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.dto.MemberImportResult;
+import com.example.springboot_security_jwt.dto.MemberPageDto;
+import com.example.springboot_security_jwt.dto.ProfileUpdateDto;
+import com.example.springboot_security_jwt.service.MemberImportService;
+import com.example.springboot_security_jwt.service.MemberService;
+import com.example.springboot_security_jwt.util.ReactiveSecurityUtil;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+
+// reactive 프로필에서 사용하는 UserController이다. 경로와 권한 규칙은 서블릿 모드와 같다.
+// MemberService는 JPA(블로킹)를 사용하므로 모든 호출을 boundedElastic 스케줄러에서 실행한다.
+@RestController
+@Profile("reactive")
+@AllArgsConstructor
+@RequestMapping("/api")
+public class ReactiveUserController {
+    private final MemberService memberService;
+    private final MemberImportService memberImportService;
+
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<MemberDto>> signup(@Valid @RequestBody MemberDto memberDto) {
+        return blocking(() -> memberService.signup(memberDto)).map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/members/import", consumes = {"application/x-ndjson", "text/csv"})
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // MemberImportService는 InputStream을 읽는 블로킹 코드이므로 본문을 모은 뒤(최대 member.import.max-buffered-body-size)
+    // boundedElastic에서 처리한다.
+    public Mono<ResponseEntity<MemberImportResult>> importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                  @RequestBody Flux<DataBuffer> body) {
+        MemberImportService.Format format = MemberImportService.Format.of(MediaType.parseMediaType(contentType));
+        return DataBufferUtils.join(body, memberImportService.getMaxBufferedBodyBytes())
+            .flatMap(buffer -> blocking(() -> {
+                try (InputStream inputStream = buffer.asInputStream(true)) {
+                    return memberImportService.importMembers(inputStream, format);
+                }
+            }))
+            .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user")
+    // user, admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // SecurityContextHolder 대신 Reactor Context에서 현재 인증 정보를 가져온다.
+    // 토큰에 담긴 프로필이 최신이면 이벤트 루프에서 바로 응답하고, 아니면 boundedElastic에서 데이터베이스를 조회한다.
+    public Mono<ResponseEntity<MemberDto>> getMyUserInfo() {
+        return ReactiveSecurityUtil.getCurrentAuthentication()
+            .flatMap(authentication -> {
+                MemberDto fromToken = memberService.getUserFromToken(authentication);
+                return fromToken != null
+                    ? Mono.just(fromToken)
+                    : blocking(() -> memberService.getUserWithAuthorities(authentication.getName()));
+            })
+            .map(ResponseEntity::ok);
+    }
+
+    @PatchMapping("/user")
+    // 현재 로그인한 사용자의 닉네임을 바꾼다.
+    public Mono<ResponseEntity<MemberDto>> updateMyProfile(@Valid @RequestBody ProfileUpdateDto profileUpdateDto) {
+        return ReactiveSecurityUtil.getCurrentUsername()
+            .flatMap(username -> blocking(() -> memberService.updateNickname(username, profileUpdateDto.getNickname())))
+            .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user/{username}")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    public Mono<ResponseEntity<MemberDto>> getUserInfo(@PathVariable String username) {
+        return blocking(() -> memberService.getUserWithAuthorities(username)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/members")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    public Mono<ResponseEntity<MemberPageDto>> getMembers(@RequestParam(required = false) Long after,
+                                                          @RequestParam(defaultValue = "100") int size) {
+        return blocking(() -> memberService.getMembers(after, size)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/members/export", produces = "application/x-ndjson")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // prefetch를 1로 두어 한 페이지를 다 내보낸 뒤에 다음 페이지를 읽는다. 클라이언트가 느리면 조회도 그만큼 늦춰진다.
+    public Flux<MemberDto> exportMembers() {
+        return blocking(() -> memberService.getMembers(null, MemberService.EXPORT_CHUNK_SIZE))
+            .expand(page -> page.getNextCursor() == null
+                ? Mono.empty()
+                : blocking(() -> memberService.getMembers(page.getNextCursor(), MemberService.EXPORT_CHUNK_SIZE)))
+            .concatMapIterable(MemberPageDto::getMembers, 1);
+    }
+
+    @PostMapping("/user/{username}/deactivate")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    public Mono<ResponseEntity<Void>> deactivate(@PathVariable String username) {
+        return Mono.fromRunnable(() -> memberService.deactivate(username))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
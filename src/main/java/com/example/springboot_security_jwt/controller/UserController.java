@@ -1,35 +1,88 @@
 package com.example.springboot_security_jwt.controller;
 
 import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.dto.MemberImportResult;
+import com.example.springboot_security_jwt.dto.MemberPageDto;
+import com.example.springboot_security_jwt.dto.ProfileUpdateDto;
+import com.example.springboot_security_jwt.service.MemberImportService;
 import com.example.springboot_security_jwt.service.MemberService;
+import com.example.springboot_security_jwt.util.SecurityUtil;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+// 각 API의 권한 규칙은 SecurityConfig에서 경로별로 검사한다. (RoleAuthorizationManager)
 @RestController
+@Profile("!reactive")
 @AllArgsConstructor
 @RequestMapping("/api")
 public class UserController {
     private final MemberService memberService;
+    private final MemberImportService memberImportService;
 
     @PostMapping("/signup")
     public ResponseEntity<MemberDto> signup(@Valid @RequestBody MemberDto memberDto) {
         return ResponseEntity.ok(memberService.signup(memberDto));
     }
 
+    @PostMapping(value = "/members/import", consumes = {"application/x-ndjson", "text/csv"})
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // 요청 본문(NDJSON 또는 CSV)을 메모리에 모두 올리지 않고 한 줄씩 읽으면서 일괄 가입시킨다.
+    public ResponseEntity<MemberImportResult> importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                            InputStream body) throws IOException {
+        MemberImportService.Format format = MemberImportService.Format.of(MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(memberImportService.importMembers(body, format));
+    }
+
     @GetMapping("/user")
     // user, admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
-    @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<MemberDto> getMyUserInfo() {
         return ResponseEntity.ok(memberService.getMyUserWithAuthorities());
     }
 
+    @PatchMapping("/user")
+    // 현재 로그인한 사용자의 닉네임을 바꾼다. 이미 발급된 토큰의 닉네임은 오래된 값이 되므로
+    // 새 토큰을 받기 전까지 /api/user는 데이터베이스에서 조회한다.
+    public ResponseEntity<MemberDto> updateMyProfile(@Valid @RequestBody ProfileUpdateDto profileUpdateDto) {
+        String username = SecurityUtil.getCurrentUsername()
+            .orElseThrow(() -> new RuntimeException("Member not found"));
+        return ResponseEntity.ok(memberService.updateNickname(username, profileUpdateDto.getNickname()));
+    }
+
     @GetMapping("/user/{username}")
     // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
-    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<MemberDto> getUserInfo(@PathVariable String username) {
         return ResponseEntity.ok(memberService.getUserWithAuthorities(username));
     }
+
+    @GetMapping("/members")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // 회원 목록을 member_id 순서로 size명씩 반환한다. 다음 페이지는 응답의 nextCursor를 after로 넘겨서 요청한다.
+    public ResponseEntity<MemberPageDto> getMembers(@RequestParam(required = false) Long after,
+                                                    @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(memberService.getMembers(after, size));
+    }
+
+    @GetMapping(value = "/members/export", produces = "application/x-ndjson")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    // 모든 회원을 NDJSON으로 내보낸다. 응답은 applicationTaskExecutor 스레드에서 chunk 단위로 읽으면서 바로 쓴다.
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        StreamingResponseBody body = memberService::exportMembers;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    @PostMapping("/user/{username}/deactivate")
+    // admin 권한이 있는 사용자만 이 API에 접근할 수 있다.
+    public ResponseEntity<Void> deactivate(@PathVariable String username) {
+        memberService.deactivate(username);
+        return ResponseEntity.noContent().build();
+    }
 }
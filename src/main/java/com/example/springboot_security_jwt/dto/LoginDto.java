@@ -1,5 +1,6 @@
 package com.example.springboot_security_jwt.dto;
 
+import com.example.springboot_security_jwt.jwt.TokenFormat;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
@@ -18,4 +19,7 @@ public class LoginDto {
     @NotNull
     @Size(min = 3, max = 100)
     private String password;
+
+    // 발급받을 액세스 토큰 형식이다. ("jwt" 또는 "compact", 생략하면 jwt)
+    private TokenFormat tokenFormat;
 }
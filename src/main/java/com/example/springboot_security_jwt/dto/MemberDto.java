@@ -1,10 +1,13 @@
 package com.example.springboot_security_jwt.dto;
 
 import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.jwt.JwtAuthenticationToken;
+import com.example.springboot_security_jwt.service.MemberSnapshot;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.springframework.security.core.GrantedAuthority;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -47,4 +50,29 @@ public class MemberDto {
                 .collect(Collectors.toSet()))
             .build();
     }
+
+    // 캐시된 MemberSnapshot을 MemberDto로 변환한다.
+    public static MemberDto from(MemberSnapshot member) {
+        if (member == null) return null;
+
+        return MemberDto.builder()
+            .username(member.username())
+            .nickname(member.nickname())
+            .authorityDtoSet(member.authorityNames().stream()
+                .map(authorityName -> AuthorityDto.builder().authorityName(authorityName).build())
+                .collect(Collectors.toSet()))
+            .build();
+    }
+
+    // 검증된 토큰의 claims(sub, nick, auth)로 MemberDto를 만든다. 데이터베이스를 조회하지 않는다.
+    public static MemberDto from(JwtAuthenticationToken authentication) {
+        return MemberDto.builder()
+            .username(authentication.getName())
+            .nickname(authentication.getNickname())
+            .authorityDtoSet(authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authorityName -> AuthorityDto.builder().authorityName(authorityName).build())
+                .collect(Collectors.toSet()))
+            .build();
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.springboot_security_jwt.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 일괄 가입 결과이다. 처리한 행 수, 초당 가입 수, 실패한 행의 번호와 이유를 담는다.
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberImportResult {
+    private long total;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    // 실패한 행이 많으면 앞의 일부만 담고 errorsTruncated를 true로 설정한다.
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        // 본문에서의 행 번호(1부터 시작)이다. CSV는 헤더가 1행이다.
+        private int line;
+        private String username;
+        private String message;
+    }
+}
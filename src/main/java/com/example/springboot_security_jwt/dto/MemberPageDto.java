@@ -0,0 +1,17 @@
+package com.example.springboot_security_jwt.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 회원 목록의 한 페이지이다. 다음 페이지는 nextCursor를 after 파라미터로 넘겨서 요청한다.
+// nextCursor가 null이면 마지막 페이지이다.
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberPageDto {
+    private List<MemberDto> members;
+    private Long nextCursor;
+}
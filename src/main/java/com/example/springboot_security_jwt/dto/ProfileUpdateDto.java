@@ -0,0 +1,17 @@
+package com.example.springboot_security_jwt.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfileUpdateDto {
+
+    @NotNull
+    @Size(min = 3, max = 50)
+    private String nickname;
+}
@@ -0,0 +1,21 @@
+package com.example.springboot_security_jwt.dto;
+
+import com.example.springboot_security_jwt.jwt.TokenFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenDto {
+
+    @NotNull
+    @Size(min = 1, max = 100)
+    private String refreshToken;
+
+    // 발급받을 액세스 토큰 형식이다. ("jwt" 또는 "compact", 생략하면 jwt)
+    private TokenFormat tokenFormat;
+}
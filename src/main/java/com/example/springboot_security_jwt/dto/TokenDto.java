@@ -9,4 +9,6 @@ import lombok.*;
 @NoArgsConstructor
 public class TokenDto {
     private String token;
+    // 액세스 토큰이 만료되었을 때 /api/refresh 로 새 토큰을 받는 데 사용한다.
+    private String refreshToken;
 }
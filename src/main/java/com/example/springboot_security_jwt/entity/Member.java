@@ -3,17 +3,25 @@ package com.example.springboot_security_jwt.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.Set;
 
 @Entity
-@Table(name = "member")
+@Table(name = "member", uniqueConstraints = {
+    // 가입 시 중복 확인은 이 제약 조건에 맡긴다. (MemberService.signup)
+    @UniqueConstraint(name = Member.USERNAME_CONSTRAINT, columnNames = "username")
+}, indexes = {
+    @Index(name = "idx_member_profile_updated_at", columnList = "profile_updated_at")
+})
 @Getter
 @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Member {
+    public static final String USERNAME_CONSTRAINT = "uk_member_username";
 
     @JsonIgnore
     @Id
@@ -21,11 +29,12 @@ public class Member {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long memberId;
 
-    @Column(name = "username", length = 50, unique = true)
+    @Column(name = "username", length = 50)
     private String username;
 
     @JsonIgnore
-    @Column(name = "password", length = 100)
+    // {argon2}, {pbkdf2} 형식의 해시는 100자를 넘을 수 있다.
+    @Column(name = "password", length = 255)
     private String password;
 
     @Column(name = "nickname", length = 50)
@@ -35,11 +44,25 @@ public class Member {
     @Column(name = "activated")
     private boolean activated;
 
+    // 닉네임이나 권한처럼 액세스 토큰의 claims에 담기는 정보가 바뀔 때마다 1씩 증가한다.
+    // 토큰의 pv claim이 이 값보다 작으면 토큰에 담긴 정보가 오래된 것이다.
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "profile_version", nullable = false)
+    private long profileVersion;
+
+    // profile_version이 마지막으로 바뀐 시각이다. 시작할 때 ProfileVersionRegistry를 다시 만드는 데 사용한다.
+    @JsonIgnore
+    @Column(name = "profile_updated_at")
+    private Instant profileUpdatedAt;
+
     @ManyToMany
     @JoinTable(
         name = "user_authority",
         joinColumns = {@JoinColumn(name = "member_id", referencedColumnName = "member_id")},
-        inverseJoinColumns = {@JoinColumn(name = "authority_name", referencedColumnName = "authority_name")}
+        inverseJoinColumns = {@JoinColumn(name = "authority_name", referencedColumnName = "authority_name")},
+        // 회원의 권한을 불러오는 조회(member_id 조건)에 사용한다.
+        indexes = @Index(name = "idx_user_authority_member", columnList = "member_id")
     )
     private Set<Authority> authorities;
 }
@@ -0,0 +1,47 @@
+package com.example.springboot_security_jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// 액세스 토큰을 다시 발급받을 때 사용하는 refresh token이다.
+// 토큰 원문은 저장하지 않고 SHA-256 해시만 저장하며, 해시와 회원으로 조회할 수 있도록 인덱스를 둔다.
+// 같은 로그인에서 회전(rotation)되어 이어지는 토큰들은 같은 familyId를 가진다.
+@Entity
+@Table(name = "refresh_token", indexes = {
+    @Index(name = "idx_refresh_token_member", columnList = "member_id"),
+    @Index(name = "idx_refresh_token_family", columnList = "family_id")
+})
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @Column(name = "refresh_token_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long refreshTokenId;
+
+    @Column(name = "token_hash", length = 64, unique = true, nullable = false)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member member;
+
+    @Column(name = "family_id", length = 36, nullable = false)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // 이미 새 토큰으로 교체된 토큰이면 true이다. 다시 사용되면 탈취된 것으로 보고 같은 family를 모두 폐기한다.
+    @Column(name = "used")
+    private boolean used;
+
+    @Column(name = "revoked")
+    private boolean revoked;
+}
@@ -0,0 +1,38 @@
+package com.example.springboot_security_jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// 폐기된 액세스 토큰 기록이다.
+// jti가 있으면 해당 토큰 하나를, jti가 없으면 username 사용자가 revokedAt 이전에 발급받은 토큰 전체를 폐기한다.
+// expiresAt 이후에는 폐기 대상 토큰이 모두 만료되므로 기록을 지워도 된다.
+@Entity
+@Table(name = "revoked_token", indexes = {
+    @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "revoked_token_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long revokedTokenId;
+
+    @Column(name = "jti", length = 36, unique = true)
+    private String jti;
+
+    @Column(name = "username", length = 50)
+    private String username;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
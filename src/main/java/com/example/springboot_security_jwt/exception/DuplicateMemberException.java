@@ -0,0 +1,12 @@
+package com.example.springboot_security_jwt.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 이미 같은 username으로 가입된 회원이 있을 때 발생한다. 409 Conflict로 응답한다.
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateMemberException extends RuntimeException {
+    public DuplicateMemberException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springboot_security_jwt.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// refresh token이 없거나, 만료되었거나, 폐기되었거나, 재사용된 경우 발생한다. 401 Unauthorized로 응답한다.
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springboot_security_jwt.exception;
+
+// 로그인 전용 스레드 풀의 대기열이 가득 차서 로그인 요청을 받을 수 없을 때 발생한다.
+// AuthController가 503 Service Unavailable과 Retry-After 헤더로 응답한다.
+public class LoginOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginOverloadedException(long retryAfterSeconds) {
+        super("로그인 요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.springboot_security_jwt.exception;
+
+// 같은 사용자 이름이나 같은 IP에서 로그인 시도가 너무 많거나, 로그인 실패가 반복되어 잠겨 있을 때 발생한다.
+// AuthController가 429 Too Many Requests와 Retry-After 헤더로 응답한다.
+// 거절은 흔하게 일어나는 정상 흐름이므로 비용이 큰 스택 트레이스는 만들지 않는다.
+public class LoginRateLimitedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(long retryAfterSeconds) {
+        super("로그인 시도가 너무 많습니다. " + retryAfterSeconds + "초 후에 다시 시도해 주세요.", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
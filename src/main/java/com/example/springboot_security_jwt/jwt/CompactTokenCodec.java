@@ -0,0 +1,255 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// 바이트 수가 중요한 모바일, IoT 클라이언트를 위한 compact 토큰 형식을 만들고 검증한다.
+// JWT와 같은 키(JwtKeyRing)와 같은 서명 알고리즘을 사용하고, 검증 결과도 같은 JwtAuthenticationToken이다.
+// JSON 헤더와 claims 대신 정해진 순서의 바이너리 payload를 사용하므로 토큰이 짧고 파싱에 Jackson이 필요 없다.
+//
+// 형식: ct.<Base64URL(payload)>.<Base64URL(서명)>  (서명은 payload 바이트에 대해 계산한다)
+// payload (버전 1, 정수는 부호 없는 varint, 문자열은 varint 길이 + UTF-8)
+//   1바이트 버전, 1바이트 플래그(1: 프로필 있음, 2: kid 있음), 4바이트 RoleRegistry id, 역할 비트 집합,
+//   발급 시각(초), 유효 시간(초), 16바이트 토큰 id(UUID), subject, [닉네임, 프로필 버전], [kid]
+// JWT는 항상 "eyJ"로 시작하므로 접두사만 보고 두 형식을 구분할 수 있다.
+final class CompactTokenCodec {
+    static final String PREFIX = "ct.";
+    private static final byte VERSION = 1;
+    private static final int FLAG_PROFILE = 1;
+    private static final int FLAG_KEY_ID = 2;
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final JwtKeyRing keyRing;
+    private final RoleRegistry roleRegistry;
+
+    CompactTokenCodec(JwtKeyRing keyRing, RoleRegistry roleRegistry) {
+        this.keyRing = keyRing;
+        this.roleRegistry = roleRegistry;
+    }
+
+    static boolean isCompact(String token) {
+        return token.startsWith(PREFIX);
+    }
+
+    // nickname이 null이면 프로필(닉네임, 프로필 버전)을 담지 않는다.
+    String encode(String subject, Collection<? extends GrantedAuthority> authorities, UUID tokenId,
+                  long issuedAtMillis, long expiresAtMillis, String nickname, long profileVersion) {
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        long issuedAt = issuedAtMillis / 1000;
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        payload.write(VERSION);
+        payload.write((nickname != null ? FLAG_PROFILE : 0) | (signingKey.keyId() != null ? FLAG_KEY_ID : 0));
+        writeInt(payload, roleRegistry.getId());
+        writeVarLong(payload, roleRegistry.requireBitsOf(authorities));
+        writeVarLong(payload, issuedAt);
+        writeVarLong(payload, expiresAtMillis / 1000 - issuedAt);
+        writeLong(payload, tokenId.getMostSignificantBits());
+        writeLong(payload, tokenId.getLeastSignificantBits());
+        writeString(payload, subject);
+        if (nickname != null) {
+            writeString(payload, nickname);
+            writeVarLong(payload, profileVersion);
+        }
+        if (signingKey.keyId() != null) {
+            writeString(payload, signingKey.keyId());
+        }
+
+        byte[] payloadBytes = payload.toByteArray();
+        return PREFIX + BASE64_URL.encodeToString(payloadBytes) + '.' + BASE64_URL.encodeToString(sign(payloadBytes, signingKey.key()));
+    }
+
+    // 검증에 성공하면 Authentication을 담은 결과를, 실패하면 실패 이유를 담은 결과를 반환한다. 예외는 던지지 않는다.
+    // JWT의 TokenStructure와 같이 만료 여부는 서명을 확인하기 전에 판단한다.
+    JwtVerification decode(String token, long nowMillis) {
+        int length = token.length();
+        int dot = token.indexOf('.', PREFIX.length());
+        if (length > TokenStructure.MAX_TOKEN_LENGTH || dot <= PREFIX.length() || dot == length - 1) {
+            return JwtVerification.failure(JwtFailureReason.MALFORMED);
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = BASE64_URL_DECODER.decode(token.substring(PREFIX.length(), dot));
+            signature = BASE64_URL_DECODER.decode(token.substring(dot + 1));
+        }
+        catch (IllegalArgumentException e) {
+            return JwtVerification.failure(JwtFailureReason.MALFORMED);
+        }
+
+        try {
+            Reader reader = new Reader(payload);
+            if (reader.readByte() != VERSION) {
+                return JwtVerification.failure(JwtFailureReason.UNSUPPORTED);
+            }
+            int flags = reader.readByte();
+            // 권한 목록이 바뀐 뒤에는 비트 번호가 달라졌을 수 있으므로 받아들이지 않는다. 클라이언트는 다시 발급받는다.
+            if (reader.readInt() != roleRegistry.getId()) {
+                return JwtVerification.failure(JwtFailureReason.UNSUPPORTED);
+            }
+            long roleBits = reader.readVarLong();
+            long issuedAt = reader.readVarLong();
+            long expiresAt = issuedAt + reader.readVarLong();
+            UUID tokenId = new UUID(reader.readLong(), reader.readLong());
+            String subject = reader.readString();
+            String nickname = null;
+            long profileVersion = JwtAuthenticationToken.NO_PROFILE_VERSION;
+            if ((flags & FLAG_PROFILE) != 0) {
+                nickname = reader.readString();
+                profileVersion = reader.readVarLong();
+            }
+            String keyId = (flags & FLAG_KEY_ID) != 0 ? reader.readString() : null;
+            if (reader.hasRemaining()) {
+                return JwtVerification.failure(JwtFailureReason.MALFORMED);
+            }
+
+            if (expiresAt * 1000 < nowMillis) {
+                return JwtVerification.failure(JwtFailureReason.EXPIRED);
+            }
+            Key key = keyRing.getVerificationKey(keyId);
+            if (key == null || !verify(payload, signature, key)) {
+                return JwtVerification.failure(JwtFailureReason.INVALID_SIGNATURE);
+            }
+            List<GrantedAuthority> authorities = roleRegistry.authoritiesOf(roleBits);
+            if (authorities == null) {
+                return JwtVerification.failure(JwtFailureReason.MALFORMED);
+            }
+            return JwtVerification.success(null, new JwtAuthenticationToken(subject, token, authorities, roleBits,
+                tokenId.toString(), issuedAt * 1000, expiresAt * 1000, nickname, profileVersion));
+        }
+        catch (IllegalArgumentException e) {
+            // payload가 중간에 끝났거나 길이 값이 잘못된 경우
+            return JwtVerification.failure(JwtFailureReason.MALFORMED);
+        }
+    }
+
+    private byte[] sign(byte[] payload, Key key) {
+        SignatureAlgorithm algorithm = keyRing.getAlgorithm();
+        try {
+            if (algorithm.isHmac()) {
+                Mac mac = Mac.getInstance(algorithm.getJcaName());
+                mac.init(key);
+                return mac.doFinal(payload);
+            }
+            Signature signature = Signature.getInstance(algorithm.getJcaName());
+            signature.initSign((PrivateKey) key);
+            signature.update(payload);
+            return signature.sign();
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException("compact 토큰에 서명할 수 없습니다.", e);
+        }
+    }
+
+    private boolean verify(byte[] payload, byte[] signatureBytes, Key key) {
+        SignatureAlgorithm algorithm = keyRing.getAlgorithm();
+        try {
+            if (algorithm.isHmac()) {
+                Mac mac = Mac.getInstance(algorithm.getJcaName());
+                mac.init(key);
+                // 서명 비교에 걸리는 시간으로 서명 값을 추측할 수 없도록 상수 시간으로 비교한다.
+                return MessageDigest.isEqual(mac.doFinal(payload), signatureBytes);
+            }
+            Signature signature = Signature.getInstance(algorithm.getJcaName());
+            signature.initVerify((PublicKey) key);
+            signature.update(payload);
+            return signature.verify(signatureBytes);
+        }
+        catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        writeInt(out, (int) (value >>> 32));
+        writeInt(out, (int) value);
+    }
+
+    // 7비트씩 나누어 쓰고, 이어지는 바이트가 있으면 최상위 비트를 1로 둔다. 작은 값은 1~2바이트로 끝난다.
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    // payload를 앞에서부터 읽는다. 남은 바이트보다 많이 읽으려 하면 IllegalArgumentException이 발생한다.
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("payload가 끝났습니다.");
+            }
+            return bytes[position++];
+        }
+
+        int readInt() {
+            return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8 | (readByte() & 0xFF);
+        }
+
+        long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("varint가 너무 깁니다.");
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("문자열 길이가 payload보다 깁니다.");
+            }
+            String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        boolean hasRemaining() {
+            return position < bytes.length;
+        }
+    }
+}
\ No newline at end of file
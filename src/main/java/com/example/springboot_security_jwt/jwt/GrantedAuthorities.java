@@ -0,0 +1,68 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 토큰의 auth claim("ROLE_USER,ROLE_ADMIN")을 GrantedAuthority 목록으로 변환한다.
+// 같은 이름의 권한은 하나의 SimpleGrantedAuthority 인스턴스를, 같은 claim 문자열은 하나의 불변 목록을 공유한다.
+// 권한 조합의 수는 많지 않으므로 요청마다 split, stream, 새 객체 생성 없이 맵 조회 한 번으로 끝난다.
+public final class GrantedAuthorities {
+    // 서명된 토큰에서만 호출되지만, 예상치 못하게 조합이 많아져도 메모리가 무한히 늘어나지 않도록 상한을 둔다.
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, List<GrantedAuthority>> AUTHORITY_SETS = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {}
+
+    // 권한 이름에 해당하는 공유 GrantedAuthority 인스턴스를 반환한다.
+    public static GrantedAuthority of(String authorityName) {
+        GrantedAuthority authority = AUTHORITIES.get(authorityName);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(authorityName);
+        if (AUTHORITIES.size() < MAX_ENTRIES) {
+            GrantedAuthority existing = AUTHORITIES.putIfAbsent(authorityName, authority);
+            return existing != null ? existing : authority;
+        }
+        return authority;
+    }
+
+    // 콤마로 구분된 auth claim을 공유되는 불변 GrantedAuthority 목록으로 변환한다.
+    public static List<GrantedAuthority> decode(String claim) {
+        List<GrantedAuthority> authorities = AUTHORITY_SETS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parse(claim);
+        if (AUTHORITY_SETS.size() < MAX_ENTRIES) {
+            List<GrantedAuthority> existing = AUTHORITY_SETS.putIfAbsent(claim, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    // 정규식을 사용하는 String.split() 대신 indexOf로 잘라낸다. 빈 항목은 건너뛴다.
+    private static List<GrantedAuthority> parse(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        int start = 0;
+        while (start <= claim.length()) {
+            int end = claim.indexOf(',', start);
+            if (end < 0) {
+                end = claim.length();
+            }
+            if (end > start) {
+                authorities.add(of(claim.substring(start, end)));
+            }
+            start = end + 1;
+        }
+        return authorities.isEmpty() ? Collections.emptyList() : List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+// 리액티브 모드에서 JWT 검증이 실패했을 때 JwtReactiveAuthenticationManager가 반환하는 예외이다.
+// 실패 이유를 담아 ReactiveSecurityConfig의 실패 처리기가 TokenFailureLog에 기록할 수 있게 한다.
+// 잘못된 토큰이 대량으로 들어와도 비용이 커지지 않도록 스택 트레이스는 만들지 않는다.
+public class InvalidJwtException extends BadCredentialsException {
+    private final JwtFailureReason reason;
+
+    public InvalidJwtException(JwtFailureReason reason) {
+        super("유효하지 않은 JWT 토큰입니다: " + reason);
+        this.reason = reason;
+    }
+
+    public JwtFailureReason getReason() {
+        return reason;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
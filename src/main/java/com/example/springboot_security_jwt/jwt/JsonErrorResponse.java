@@ -0,0 +1,60 @@
+package com.example.springboot_security_jwt.jwt;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// 401/403 응답 본문을 미리 만들어 두고 그대로 쓰는 응답이다.
+// sendError()를 호출하면 컨테이너가 /error로 에러 디스패치를 하면서 필터 체인을 한 번 더 통과하고
+// BasicErrorController가 요청마다 JSON을 새로 직렬화한다. 거절되는 요청이 많을 때는 이 비용이 처리량을 결정한다.
+// 이 클래스는 상태 코드, 헤더, 고정된 바이트 배열만 응답에 쓰므로 에러 디스패치도, 직렬화도 일어나지 않는다.
+// 리액티브 모드에서도 같은 인스턴스를 ServerHttpResponse에 써서 두 모드의 응답이 같도록 한다.
+final class JsonErrorResponse {
+    private static final String CONTENT_TYPE = "application/json";
+
+    private final int status;
+    private final String wwwAuthenticate;
+    private final byte[] body;
+
+    // 본문 예: {"status":401,"error":"unauthorized","reason":"expired"}
+    // error와 reason은 고정된 영문 소문자 값이므로 JSON 이스케이프가 필요 없다.
+    // wwwAuthenticate가 null이면 WWW-Authenticate 헤더를 보내지 않는다.
+    JsonErrorResponse(int status, String error, String reason, String wwwAuthenticate) {
+        this.status = status;
+        this.wwwAuthenticate = wwwAuthenticate;
+        this.body = ("{\"status\":" + status + ",\"error\":\"" + error + "\",\"reason\":\"" + reason + "\"}")
+            .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        // RFC 6750의 Bearer 토큰 오류 형식으로 클라이언트가 실패 원인을 구분할 수 있게 한다.
+        if (wwwAuthenticate != null) {
+            response.setHeader("WWW-Authenticate", wwwAuthenticate);
+        }
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.write(body);
+        outputStream.flush();
+    }
+
+    // 리액티브 모드의 응답에 쓴다. 고정된 바이트 배열을 감싸기만 하므로 요청마다 직렬화하지 않는다.
+    Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.valueOf(status));
+        HttpHeaders headers = response.getHeaders();
+        if (wwwAuthenticate != null) {
+            headers.set(HttpHeaders.WWW_AUTHENTICATE, wwwAuthenticate);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
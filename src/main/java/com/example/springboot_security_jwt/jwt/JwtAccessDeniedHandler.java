@@ -2,6 +2,7 @@ package com.example.springboot_security_jwt.jwt;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.stereotype.Component;
@@ -9,8 +10,12 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 
 @Component
+@Profile("!reactive")
 // AccessDeniedHandler 인터페이스는 사용자가 인증은 되었으나, 특정 리소스에 접근할 권한이 없을 때 호출되는 메서드를 정의한다.
 public class JwtAccessDeniedHandler implements AccessDeniedHandler {
+    // 리액티브 모드의 JwtServerAccessDeniedHandler도 같은 응답을 사용한다.
+    static final JsonErrorResponse FORBIDDEN = new JsonErrorResponse(HttpServletResponse.SC_FORBIDDEN,
+        "forbidden", "insufficient_scope", "Bearer error=\"insufficient_scope\"");
 
     // AccessDeniedHandler 인터페이스의 handle() 메서드를 오버라이드한다.
     // 이 메서드는 Spring Security에서 권한이 없는 사용자가 보호된 리소스에 접근하려 할 때 호출된다.
@@ -19,7 +24,8 @@ public class JwtAccessDeniedHandler implements AccessDeniedHandler {
                        HttpServletResponse servletResponse,
                        AccessDeniedException accessDeniedException) throws IOException {
 
-        servletResponse.sendError(HttpServletResponse.SC_FORBIDDEN);
+        // sendError()로 에러 디스패치를 일으키지 않고, 미리 만들어 둔 JSON 본문을 바로 쓴다.
+        FORBIDDEN.writeTo(servletResponse);
     }
 }
 
@@ -2,15 +2,41 @@ package com.example.springboot_security_jwt.jwt;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Component
+@Profile("!reactive")
 // AuthenticationEntryPoint 인터페이스는 인증 실패 시 호출되는 메서드를 제공하며, 인증되지 않은 사용자가 보호된 리소스에 접근할 때 트리거된다.
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+    // 토큰이 없는 요청에 대한 응답이다.
+    private static final JsonErrorResponse MISSING_TOKEN =
+        new JsonErrorResponse(HttpServletResponse.SC_UNAUTHORIZED, "unauthorized", "missing_token", "Bearer");
+    // /api/authenticate에서 아이디나 비밀번호가 틀린 경우의 응답이다.
+    // 토큰을 보내서 해결되는 실패가 아니므로 Bearer challenge(WWW-Authenticate)를 보내지 않는다.
+    private static final JsonErrorResponse BAD_CREDENTIALS =
+        new JsonErrorResponse(HttpServletResponse.SC_UNAUTHORIZED, "unauthorized", "bad_credentials", null);
+    // 그 밖의 로그인 실패(예: 비활성화된 사용자)에 대한 응답이다.
+    private static final JsonErrorResponse AUTHENTICATION_FAILED =
+        new JsonErrorResponse(HttpServletResponse.SC_UNAUTHORIZED, "unauthorized", "authentication_failed", null);
+    // 토큰 검증 실패 이유별 응답을 애플리케이션 시작 시 한 번만 만들어 둔다.
+    private static final Map<JwtFailureReason, JsonErrorResponse> INVALID_TOKEN = new EnumMap<>(JwtFailureReason.class);
+
+    static {
+        for (JwtFailureReason reason : JwtFailureReason.values()) {
+            INVALID_TOKEN.put(reason, new JsonErrorResponse(HttpServletResponse.SC_UNAUTHORIZED, "unauthorized",
+                reason.name().toLowerCase(), "Bearer error=\"invalid_token\""));
+        }
+    }
 
     // AuthenticationEntryPoint 인터페이스의 commence() 메서드를 오버라이드하여 정의한다.
     // HttpServletRequest는 요청 객체이다. 인증이 실패한 HTTP 요청의 정보를 포함하고 있다.
@@ -22,11 +48,32 @@ public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
                          AuthenticationException authenticationException) throws IOException {
 
         // 인증 실패 또는 인증이 없는 사용자가 보호된 리소스에 접근했을 때, 클라이언트에게 401 Unauthorized 상태 코드를 응답한다.
-        servletResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+        // sendError()는 /error로 에러 디스패치를 일으키므로 사용하지 않고, 미리 만들어 둔 JSON 본문을 바로 쓴다.
+        // JwtFilter가 토큰 검증에 실패하면 요청 속성에 실패 이유를 남겨 두므로, 이를 reason으로 알려준다.
+        Object failureReason = servletRequest.getAttribute(JwtFilter.FAILURE_REASON_ATTRIBUTE);
+        responseFor(failureReason, authenticationException).writeTo(servletResponse);
+    }
+
+    // 응답 본문을 고른다. 리액티브 모드의 JwtServerAuthenticationEntryPoint도 같은 규칙을 사용한다.
+    // 토큰 검증 실패 이유가 있으면 그 이유를, 없으면 예외 종류로 토큰이 없는 요청인지 로그인 실패인지 구분한다.
+    static JsonErrorResponse responseFor(Object failureReason, AuthenticationException authenticationException) {
+        if (failureReason instanceof JwtFailureReason reason) {
+            return INVALID_TOKEN.get(reason);
+        }
+        if (authenticationException instanceof InsufficientAuthenticationException
+            || authenticationException instanceof AuthenticationCredentialsNotFoundException) {
+            return MISSING_TOKEN;
+        }
+        if (authenticationException instanceof BadCredentialsException) {
+            return BAD_CREDENTIALS;
+        }
+        return AUTHENTICATION_FAILED;
     }
 }
 
 // 이 클래스는 Spring Security에서 정의한 AuthenticationEntryPoint를 구현하고 있으며,
 // 인증 되지 않은 사용자가 보호된 리소스에 접근하려고 할 때 이 엔트리 포인트가 호출된다.
 // JWT 토큰이 만료되었거나 잘못된 JWT 토큰을 가진 사용자가 보호된 엔드포인트에 접근하려고 할 때
-// 이 클래스의 commence 메서드가 호출되어 401 Unauthorized 응답을 보낸다.
\ No newline at end of file
+// 이 클래스의 commence 메서드가 호출되어 401 Unauthorized 응답을 보낸다.
+// 응답 본문 예: {"status":401,"error":"unauthorized","reason":"expired"}
+// 로그인에서 비밀번호가 틀린 경우: {"status":401,"error":"unauthorized","reason":"bad_credentials"}
\ No newline at end of file
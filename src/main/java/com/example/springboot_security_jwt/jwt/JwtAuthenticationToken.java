@@ -0,0 +1,131 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+// 검증된 JWT로부터 만들어지는 Authentication 구현체이다. 인증 여부 외의 값은 바뀌지 않는다.
+// UsernamePasswordAuthenticationToken과 User는 생성할 때마다 권한 목록을 복사하고 정렬하지만,
+// 이 클래스는 GrantedAuthorities가 반환한 공유 목록을 그대로 사용한다.
+// principal은 사용자 이름 문자열이며, SecurityUtil.getCurrentUsername()은 이 형태를 그대로 지원한다.
+// setAuthenticated(false)는 UsernamePasswordAuthenticationToken과 같이 인증되지 않은 상태로 바꾼다.
+// 인증 여부는 요청마다 따로 가져야 하므로 VerifiedTokenCache에 저장된 인스턴스는 밖으로 내보내지 않고,
+// TokenProvider가 copy()로 요청마다 새 인스턴스를 만들어 반환한다. 사용자 정보와 권한 목록은 복사본끼리 공유한다.
+public final class JwtAuthenticationToken implements Authentication {
+    // 프로필 claims(nick, pv)가 없는 토큰의 profileVersion 값이다.
+    public static final long NO_PROFILE_VERSION = -1L;
+
+    private final String username;
+    private final String token;
+    private final Collection<GrantedAuthority> authorities;
+    // authorities를 RoleRegistry의 비트로 바꾼 값이다. RoleAuthorizationManager가 권한 검사에 사용한다.
+    private final long roleBits;
+    // 폐기 여부 확인에 사용하는 토큰 id(jti)와 발급 시각(iat)이다. 예전 토큰에는 없을 수 있다.
+    private final String tokenId;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+    // 토큰 발급 시점의 닉네임과 프로필 버전이다. 예전 토큰에는 없다. (null, NO_PROFILE_VERSION)
+    private final String nickname;
+    private final long profileVersion;
+    // 검증된 토큰으로만 만들어지므로 처음에는 인증된 상태이다. 다시 true로 바꿀 수는 없다.
+    private volatile boolean authenticated = true;
+
+    public JwtAuthenticationToken(String username, String token, Collection<GrantedAuthority> authorities,
+                                  long roleBits, String tokenId, long issuedAtMillis, long expiresAtMillis) {
+        this(username, token, authorities, roleBits, tokenId, issuedAtMillis, expiresAtMillis, null, NO_PROFILE_VERSION);
+    }
+
+    public JwtAuthenticationToken(String username, String token, Collection<GrantedAuthority> authorities,
+                                  long roleBits, String tokenId, long issuedAtMillis, long expiresAtMillis,
+                                  String nickname, long profileVersion) {
+        this.username = username;
+        this.token = token;
+        this.authorities = authorities;
+        this.roleBits = roleBits;
+        this.tokenId = tokenId;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.nickname = nickname;
+        this.profileVersion = profileVersion;
+    }
+
+    // 인증된 상태의 새 인스턴스를 만든다. 권한 목록과 역할 비트는 다시 계산하지 않고 그대로 공유한다.
+    JwtAuthenticationToken copy() {
+        return new JwtAuthenticationToken(username, token, authorities, roleBits, tokenId, issuedAtMillis,
+            expiresAtMillis, nickname, profileVersion);
+    }
+
+    public long getRoleBits() {
+        return roleBits;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+
+    // 토큰에 프로필 claims가 담겨 있는지 확인한다.
+    public boolean hasProfile() {
+        return nickname != null && profileVersion != NO_PROFILE_VERSION;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    // 인증된 상태로 바꾸는 것은 토큰을 검증해서 새로 만드는 방법만 허용한다.
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("JwtAuthenticationToken을 인증된 상태로 바꿀 수 없습니다. 토큰을 다시 검증해야 합니다.");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Principal=" + username + ", Granted Authorities=" + authorities + "]";
+    }
+}
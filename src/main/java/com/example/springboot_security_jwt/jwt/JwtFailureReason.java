@@ -0,0 +1,18 @@
+package com.example.springboot_security_jwt.jwt;
+
+// JWT 검증이 실패한 이유를 나타낸다.
+// TokenProvider.verify()의 결과에 담겨 필터와 예외 처리기에서 실패 원인을 구분하는 데 사용된다.
+public enum JwtFailureReason {
+    // 서명이 일치하지 않는 경우
+    INVALID_SIGNATURE,
+    // 토큰 구조가 올바르지 않은 경우 (JWS 형식이 아니거나 Base64/JSON 디코딩에 실패)
+    MALFORMED,
+    // 토큰의 만료 시간(exp)이 지난 경우
+    EXPIRED,
+    // 지원되지 않는 형식의 토큰인 경우 (예: 서명되지 않은 JWT)
+    UNSUPPORTED,
+    // 토큰 문자열이 비어 있거나 claims가 없는 경우
+    ILLEGAL_ARGUMENT,
+    // 로그아웃이나 계정 비활성화로 폐기된 토큰인 경우
+    REVOKED
+}
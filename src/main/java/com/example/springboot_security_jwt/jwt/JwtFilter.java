@@ -10,7 +10,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
 
 import java.io.IOException;
@@ -21,9 +20,15 @@ import java.io.IOException;
 public class JwtFilter extends GenericFilterBean {
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
     public static final String AUTHORIZATION_HEADER = "Authorization";
+    public static final String BEARER_PREFIX = "Bearer ";
+    // 토큰 검증에 실패했을 때 실패 이유(JwtFailureReason)를 담아 두는 요청 속성이다.
+    // JwtAuthenticationEntryPoint가 401 응답 본문의 reason을 정할 때 사용한다.
+    public static final String FAILURE_REASON_ATTRIBUTE = JwtFilter.class.getName() + ".FAILURE_REASON";
 
     // TokenProvider 객체는 JWT를 생성하고, 검증하고, JWT에서 인증 정보를 추출하는 데 사용된다.
     private TokenProvider tokenProvider;
+    // 검증 실패를 모아서 주기적으로 요약 로그를 남긴다.
+    private TokenFailureLog tokenFailureLog;
 
     // 필터의 핵심 메서드로, HTTP 요청과 응답을 처리한다.
     // servletRequest와 servletResponse는 각각 요청과 응답 객체이다.
@@ -40,39 +45,49 @@ public class JwtFilter extends GenericFilterBean {
         // 이 메서드를 사용하여 HTTP 요청의 헤더에서 JWT를 추출한다. 추출된 토큰이 없으면 null을 반환한다.
         String jwt = resolveToken(httpServletRequest);
 
-        // 현재 요청의 URI를 가져온다.
-        // 이 정보를 통해 요청이 어느 경로로 들어왔는지 알 수 있다. 이 정보는 로그 메시지에서 사용된다.
-        String requestURI = httpServletRequest.getRequestURI();
+        // jwt 변수가 null이 아닌지 확인한다. 빈 토큰은 resolveToken()에서 이미 걸러진다.
+        // TokenProvider 클래스의 authenticate() 메서드를 호출하여 JWT를 한 번만 파싱하고 검증한다.
+        // 이미 검증된 토큰이면 캐시에 저장된 결과를 사용한다.
+        // JWT와 compact 토큰(ct.로 시작) 모두 받아들인다. 형식은 TokenProvider.verify()가 접두사로 구분한다.
+        JwtVerification verification = jwt != null ? tokenProvider.authenticate(jwt) : null;
+        if (verification != null && verification.isValid()) {
 
-        // jwt 변수가 null이 아니고, 공백이 아닌 값이 있는지를 확인한다.
-        // TokenProvider 클래스의 validateToken() 메서드를 호출하여 JWT가 유효한지를 검증한다.
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-
-            // JWT에서 인증 정보를 추출하여 Authentication 객체를 생성한다. 이 객체는 사용자의 권한 및 인증 상태를 포함한다.
-            Authentication authentication = tokenProvider.getAuthentication(jwt);
+            // 검증 과정에서 만들어진 Authentication 객체를 가져온다. 이 객체는 사용자의 권한 및 인증 상태를 포함한다.
+            Authentication authentication = verification.getAuthentication();
 
             // 추출된 Authentication 객체를 SecurityContextHolder에 저장한다.
             // SecurityContextHolder는 애플리케이션의 모든 요청에 대해 사용자 인증 정보를 유지하는 역할을 한다.
             // 이를 통해 이후 요청들은 이 인증 정보를 기반으로 동작한다.
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            logger.debug("Security Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(), requestURI);
+
+            // 성공한 요청은 기본적으로 로그를 남기지 않는다. 필요하면 이 클래스의 로그 레벨을 DEBUG로 설정한다.
+            if (logger.isDebugEnabled()) {
+                logger.debug("Security Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(),
+                    httpServletRequest.getRequestURI());
+            }
         }
-        else {
-             logger.debug("유효한 JWT 토큰이 없습니다, uri: {}", requestURI);
+        else if (verification != null) {
+            // 실패는 요청마다 로그를 남기지 않고 TokenFailureLog에 모았다가 주기적으로 요약해서 남긴다.
+            tokenFailureLog.record(verification.getFailureReason(), httpServletRequest.getRequestURI(),
+                httpServletRequest.getRemoteAddr());
+            httpServletRequest.setAttribute(FAILURE_REASON_ATTRIBUTE, verification.getFailureReason());
         }
 
         // 현재 필터가 할 일을 마쳤으므로 다음 필터로 요청을 전달한다.
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
-    private String resolveToken(HttpServletRequest request) {
+    // 같은 패키지의 벤치마크에서 호출할 수 있도록 package-private으로 둔다.
+    String resolveToken(HttpServletRequest request) {
         // HTTP 요청의 Authorization 헤더에서 값을 가져온다. 이 헤더는 Bearer 토큰 형식으로 JWT를 포함할 수 있다.
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
 
         // Authorization 헤더가 Bearer로 시작하는지 확인한다. Bearer는 표준적인 JWT 인증 방식의 접두어이다.
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+        // 헤더 전체를 훑는 StringUtils.hasText() 대신 접두어 길이만큼만 비교하고, 토큰이 비어 있으면 null을 반환한다.
+        if (bearerToken != null && bearerToken.length() > BEARER_PREFIX.length()
+            && bearerToken.regionMatches(0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
             // 접두어 Bearer 이후의 실제 토큰만 추출해서 반환한다.
-            return bearerToken.substring(7);
+            return bearerToken.substring(BEARER_PREFIX.length());
         }
 
         return null;
@@ -0,0 +1,371 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Stream;
+
+// JWT 서명과 검증에 사용하는 키들을 관리한다.
+// jwt.algorithm이 HS512(기본값)이면 jwt.secret으로 만든 HMAC 키 하나만 사용한다.
+// RS256, ES256이면 jwt.key-store.path 디렉터리의 키 쌍(<kid>.key: PKCS#8 개인키, <kid>.pub: X.509 공개키)을 읽어서
+// 가장 최근에 만들어진 키로 서명하고, 디렉터리에 있는 모든 공개키로 검증한다. 토큰 헤더의 kid로 검증 키를 찾는다.
+// 디렉터리는 주기적으로 다시 읽으므로 새 키 파일을 추가하거나 오래된 키를 지우면 재시작 없이 키가 교체된다.
+// 공개키는 JWKS 형식의 JSON으로 미리 직렬화해 두어 /.well-known/jwks.json 요청마다 다시 만들지 않는다.
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    // 개인키 파일과 키 디렉터리는 애플리케이션을 실행하는 사용자만 읽고 쓸 수 있어야 한다.
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private final SignatureAlgorithm algorithm;
+    private final String secret;
+    private final String keyStorePath;
+    private final boolean generateIfMissing;
+
+    // 키 교체 시 한 번에 바꿔 끼우는 불변 스냅샷이다. 읽는 쪽은 잠금 없이 volatile 읽기 한 번만 한다.
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(
+        @Value("${jwt.algorithm:HS512}") SignatureAlgorithm algorithm,
+        @Value("${jwt.secret:}") String secret,
+        @Value("${jwt.key-store.path:}") String keyStorePath,
+        @Value("${jwt.key-store.generate-if-missing:true}") boolean generateIfMissing
+    ) {
+        if (!algorithm.isHmac() && !algorithm.isRsa() && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("지원하지 않는 서명 알고리즘입니다: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.keyStorePath = keyStorePath;
+        this.generateIfMissing = generateIfMissing;
+    }
+
+    // jwt.secret 하나로 HS512 키 링을 만든다. 벤치마크처럼 스프링 컨텍스트 밖에서 사용할 때 쓴다.
+    public static JwtKeyRing hmac(String secret) {
+        JwtKeyRing keyRing = new JwtKeyRing(SignatureAlgorithm.HS512, secret, "", false);
+        keyRing.afterPropertiesSet();
+        return keyRing;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (algorithm.isHmac()) {
+            Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            // HMAC 키는 비밀키이므로 JWKS로 공개하지 않는다. 기존 토큰과의 호환을 위해 kid도 사용하지 않는다.
+            this.snapshot = new Snapshot(null, key, Map.of(), toJwks(Map.of()), "");
+            return;
+        }
+        reload();
+    }
+
+    // 키 디렉터리의 변경 여부를 주기적으로 확인하고, 바뀌었으면 키를 다시 읽는다.
+    @Scheduled(fixedDelayString = "${jwt.key-store.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (algorithm.isHmac()) {
+            return;
+        }
+        try {
+            if (!fingerprint(keyDirectory()).equals(snapshot.fingerprint())) {
+                reload();
+            }
+        }
+        catch (RuntimeException e) {
+            // 잘못된 키 파일이 추가되더라도 기존 키로 계속 동작한다.
+            logger.warn("JWT 키를 다시 읽지 못했습니다. 기존 키를 계속 사용합니다.", e);
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // 현재 서명에 사용하는 키와 kid를 함께 반환한다. HMAC이면 kid는 null이다.
+    // 키 교체 중에도 kid와 키가 어긋나지 않도록 같은 스냅샷에서 꺼낸다.
+    public SigningKey getSigningKey() {
+        Snapshot current = snapshot;
+        return new SigningKey(current.signingKeyId(), current.signingKey());
+    }
+
+    // JWKS JSON 본문을 반환한다. 키가 바뀔 때만 다시 만들어진다.
+    public byte[] getJwks() {
+        return snapshot.jwks();
+    }
+
+    // JwtParser가 토큰 헤더의 kid로 검증 키를 찾을 때 호출한다.
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId();
+        Key key = getVerificationKey(keyId);
+        if (key == null) {
+            throw new io.jsonwebtoken.security.SignatureException("알 수 없는 kid입니다: " + keyId);
+        }
+        return key;
+    }
+
+    // kid에 해당하는 검증 키를 반환한다. kid가 없으면 현재 서명 키로 검증하고, 알 수 없는 kid이면 null이다.
+    // JWT와 compact 토큰(CompactTokenCodec)이 같은 키로 검증된다.
+    public Key getVerificationKey(String keyId) {
+        Snapshot current = snapshot;
+        if (keyId == null) {
+            return current.signingKey() instanceof PrivateKey
+                ? current.verificationKeys().get(current.signingKeyId())
+                : current.signingKey();
+        }
+        return current.verificationKeys().get(keyId);
+    }
+
+    private synchronized void reload() {
+        Path directory = keyDirectory();
+        try {
+            createKeyDirectory(directory);
+            if (generateIfMissing && listKeyFiles(directory).isEmpty()) {
+                generate(directory);
+            }
+
+            List<Path> privateKeyFiles = listKeyFiles(directory);
+            if (privateKeyFiles.isEmpty()) {
+                throw new IllegalStateException(directory + " 에 JWT 서명 키가 없습니다.");
+            }
+
+            // 가장 최근에 수정된 개인키로 서명하고, 모든 공개키로 검증한다.
+            Path newest = privateKeyFiles.get(privateKeyFiles.size() - 1);
+            String signingKeyId = keyId(newest);
+            PrivateKey signingKey = readPrivateKey(newest);
+
+            Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+            for (Path privateKeyFile : privateKeyFiles) {
+                String keyId = keyId(privateKeyFile);
+                verificationKeys.put(keyId, readPublicKey(directory.resolve(keyId + ".pub")));
+            }
+
+            this.snapshot = new Snapshot(signingKeyId, signingKey, Map.copyOf(verificationKeys),
+                toJwks(verificationKeys), fingerprint(directory));
+            logger.info("JWT 키를 읽었습니다. 서명 kid: {}, 검증 키 수: {}", signingKeyId, verificationKeys.size());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path keyDirectory() {
+        if (!StringUtils.hasText(keyStorePath)) {
+            throw new IllegalStateException(algorithm + " 알고리즘을 사용하려면 jwt.key-store.path가 필요합니다.");
+        }
+        return Paths.get(keyStorePath);
+    }
+
+    // 수정 시각 순으로 정렬된 개인키 파일 목록을 반환한다.
+    private static List<Path> listKeyFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().endsWith(".key"))
+                .sorted(Comparator.comparing((Path file) -> file.toFile().lastModified())
+                    .thenComparing(Path::toString))
+                .toList();
+        }
+    }
+
+    private static String fingerprint(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            StringBuilder fingerprint = new StringBuilder();
+            files.sorted().forEach(file ->
+                fingerprint.append(file.getFileName()).append(':').append(file.toFile().lastModified()).append(';'));
+            return fingerprint.toString();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String keyId(Path privateKeyFile) {
+        String fileName = privateKeyFile.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ".key".length());
+    }
+
+    // 로컬 파일로 새 키 쌍을 만든다. 외부 키 관리 시스템 없이도 실행하고 테스트할 수 있다.
+    private void generate(Path directory) throws IOException {
+        KeyPair keyPair = generateKeyPair(algorithm);
+        String keyId = algorithm.getValue().toLowerCase() + "-"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        Files.writeString(directory.resolve(keyId + ".pub"), toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        writePrivateKey(directory.resolve(keyId + ".key"), toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        logger.info("{} 에 새 JWT 키 쌍을 만들었습니다. kid: {}", directory, keyId);
+    }
+
+    // 디렉터리가 없을 때만 만들고, 이때 소유자 외에는 접근할 수 없게 한다. 이미 있는 디렉터리의 권한은 바꾸지 않는다.
+    private static void createKeyDirectory(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (isPosix(directory)) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+        }
+        else {
+            Files.createDirectories(directory);
+            restrictToOwner(directory);
+        }
+    }
+
+    // 파일을 소유자 전용 권한으로 먼저 만든 뒤 내용을 쓴다. 쓰는 동안에도 다른 사용자가 읽을 수 없다.
+    private static void writePrivateKey(Path file, String pem) throws IOException {
+        if (isPosix(file)) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+        }
+        else {
+            Files.createFile(file);
+            restrictToOwner(file);
+        }
+        Files.writeString(file, pem);
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    // POSIX 권한이 없는 파일 시스템(Windows 등)에서는 java.io.File로 가능한 만큼만 제한한다.
+    private static void restrictToOwner(Path path) {
+        java.io.File file = path.toFile();
+        boolean restricted = file.setReadable(false, false) & file.setReadable(true, true)
+            & file.setWritable(false, false) & file.setWritable(true, true);
+        if (!restricted) {
+            logger.warn("{} 의 접근 권한을 소유자로 제한하지 못했습니다.", path);
+        }
+    }
+
+    public static KeyPair generateKeyPair(SignatureAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyFactoryAlgorithm(algorithm));
+            if (algorithm.isRsa()) {
+                generator.initialize(2048);
+            }
+            else {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return generator.generateKeyPair();
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " 키 쌍을 만들 수 없습니다.", e);
+        }
+    }
+
+    private PrivateKey readPrivateKey(Path file) throws IOException {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm))
+                .generatePrivate(new PKCS8EncodedKeySpec(fromPem(Files.readString(file))));
+        }
+        catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException(file + " 은 올바른 " + algorithm + " 개인키가 아닙니다.", e);
+        }
+    }
+
+    private PublicKey readPublicKey(Path file) throws IOException {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm))
+                .generatePublic(new X509EncodedKeySpec(fromPem(Files.readString(file))));
+        }
+        catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException(file + " 은 올바른 " + algorithm + " 공개키가 아닙니다.", e);
+        }
+    }
+
+    private static String keyFactoryAlgorithm(SignatureAlgorithm algorithm) {
+        return algorithm.isRsa() ? "RSA" : "EC";
+    }
+
+    private static String toPem(String type, byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(encoded)
+            + "\n-----END " + type + "-----\n";
+    }
+
+    private static byte[] fromPem(String pem) {
+        return Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+    }
+
+    private byte[] toJwks(Map<String, ? extends PublicKey> keys) {
+        List<Map<String, String>> jwks = new ArrayList<>();
+        keys.forEach((keyId, key) -> {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            if (key instanceof RSAPublicKey rsaKey) {
+                jwk.put("kty", "RSA");
+                jwk.put("kid", keyId);
+                jwk.put("use", "sig");
+                jwk.put("alg", algorithm.getValue());
+                jwk.put("n", base64Url(rsaKey.getModulus(), 0));
+                jwk.put("e", base64Url(rsaKey.getPublicExponent(), 0));
+            }
+            else if (key instanceof ECPublicKey ecKey) {
+                jwk.put("kty", "EC");
+                jwk.put("kid", keyId);
+                jwk.put("use", "sig");
+                jwk.put("alg", algorithm.getValue());
+                jwk.put("crv", "P-256");
+                jwk.put("x", base64Url(ecKey.getW().getAffineX(), 32));
+                jwk.put("y", base64Url(ecKey.getW().getAffineY(), 32));
+            }
+            jwks.add(jwk);
+        });
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("keys", jwks));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // JWK 형식에 맞게 부호 없는 big-endian 바이트로 변환한다. length가 0보다 크면 그 길이에 맞춰 앞을 0으로 채운다.
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    public record SigningKey(String keyId, Key key) {
+    }
+
+    private record Snapshot(String signingKeyId, Key signingKey, Map<String, ? extends Key> verificationKeys,
+                            byte[] jwks, String fingerprint) {
+    }
+}
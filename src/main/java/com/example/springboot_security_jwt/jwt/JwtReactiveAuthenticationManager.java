@@ -0,0 +1,22 @@
+package com.example.springboot_security_jwt.jwt;
+
+import lombok.AllArgsConstructor;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+// JwtServerAuthenticationConverter가 꺼낸 토큰을 서블릿 모드의 JwtFilter와 같은 TokenProvider.authenticate()로 검증한다.
+// 서명 검증은 수 마이크로초에서 수십 마이크로초 걸리는 CPU 작업이고 캐시나 폐기 목록 조회도 메모리에서 끝나므로,
+// 별도 스케줄러로 넘기지 않고 이벤트 루프에서 바로 실행한다.
+@AllArgsConstructor
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private final TokenProvider tokenProvider;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.fromSupplier(() -> tokenProvider.authenticate((String) authentication.getCredentials()))
+            .flatMap(verification -> verification.isValid()
+                ? Mono.just(verification.getAuthentication())
+                : Mono.error(new InvalidJwtException(verification.getFailureReason())));
+    }
+}
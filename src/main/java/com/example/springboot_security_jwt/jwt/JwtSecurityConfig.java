@@ -10,6 +10,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @AllArgsConstructor
 public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
     private final TokenProvider tokenProvider;
+    private final TokenFailureLog tokenFailureLog;
 
     // SecurityConfigurerAdapter 클래스의 configure 메서드를 오버라이드하고 있다.
     // 이 메서드는 Spring Security의 필터 체인을 설정하는 역할을 한다.
@@ -22,7 +23,7 @@ public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurity
        // JwtFilter는 UsernamePasswordAuthenticationFilter 보다 먼저 실행된다.
        // 즉, 요청이 UsernamePasswordAuthenticationFilter에 도달하기 전에 JwtFilter가 JWT를 확인하고 인증을 처리한다.
        http.addFilterBefore(
-           new JwtFilter(tokenProvider),
+           new JwtFilter(tokenProvider, tokenFailureLog),
            UsernamePasswordAuthenticationFilter.class
        );
    }
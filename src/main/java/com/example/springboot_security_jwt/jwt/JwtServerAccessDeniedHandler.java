@@ -0,0 +1,16 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// 리액티브 모드에서 JwtAccessDeniedHandler와 같은 역할을 한다.
+// 인증은 되었지만 권한이 없는 요청에 서블릿 모드와 같은 JSON 본문으로 403을 응답한다.
+public class JwtServerAccessDeniedHandler implements ServerAccessDeniedHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, AccessDeniedException accessDeniedException) {
+        return JwtAccessDeniedHandler.FORBIDDEN.writeTo(exchange.getResponse());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// 리액티브 모드에서 JwtFilter.resolveToken()과 같은 역할을 한다.
+// Authorization 헤더의 Bearer 토큰을 꺼내 아직 검증되지 않은 Authentication으로 감싸고,
+// 실제 검증은 JwtReactiveAuthenticationManager가 한다. 토큰이 없으면 빈 Mono를 반환해 인증 없이 다음 필터로 넘어간다.
+public class JwtServerAuthenticationConverter implements ServerAuthenticationConverter {
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken)
+            && bearerToken.regionMatches(0, JwtFilter.BEARER_PREFIX, 0, JwtFilter.BEARER_PREFIX.length())) {
+            String jwt = bearerToken.substring(JwtFilter.BEARER_PREFIX.length());
+            // principal과 credentials 모두 토큰 문자열이다. 권한이 없으므로 인증되지 않은 상태로 만들어진다.
+            return Mono.just(new PreAuthenticatedAuthenticationToken(jwt, jwt));
+        }
+        return Mono.empty();
+    }
+}
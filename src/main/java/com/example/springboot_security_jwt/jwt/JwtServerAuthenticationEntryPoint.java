@@ -0,0 +1,19 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// 리액티브 모드에서 JwtAuthenticationEntryPoint와 같은 역할을 한다.
+// 인증되지 않은 요청이 보호된 경로에 접근하면 서블릿 모드와 같은 JSON 본문과 reason으로 401을 응답한다.
+// 토큰 검증에 실패했다면 ReactiveSecurityConfig의 실패 처리기가 exchange 속성에 남긴 실패 이유를 reason으로 알려준다.
+public class JwtServerAuthenticationEntryPoint implements ServerAuthenticationEntryPoint {
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authenticationException) {
+        Object failureReason = exchange.getAttribute(JwtFilter.FAILURE_REASON_ATTRIBUTE);
+        return JwtAuthenticationEntryPoint.responseFor(failureReason, authenticationException)
+            .writeTo(exchange.getResponse());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+
+// 토큰 검증 결과를 담는 불변 객체이다.
+// 검증에 성공하면 파싱된 Claims(와 Authentication)를, 실패하면 실패 이유를 가진다.
+// 한 번의 파싱 결과를 그대로 넘겨주기 때문에 서명 검증과 claims 파싱을 두 번 할 필요가 없다.
+public final class JwtVerification {
+    // 실패 결과는 이유별로 하나씩만 만들어 두고 재사용한다.
+    private static final JwtVerification[] FAILURES = new JwtVerification[JwtFailureReason.values().length];
+
+    static {
+        for (JwtFailureReason reason : JwtFailureReason.values()) {
+            FAILURES[reason.ordinal()] = new JwtVerification(null, null, reason);
+        }
+    }
+
+    private final Claims claims;
+    private final Authentication authentication;
+    private final JwtFailureReason failureReason;
+
+    private JwtVerification(Claims claims, Authentication authentication, JwtFailureReason failureReason) {
+        this.claims = claims;
+        this.authentication = authentication;
+        this.failureReason = failureReason;
+    }
+
+    public static JwtVerification success(Claims claims) {
+        return new JwtVerification(claims, null, null);
+    }
+
+    // claims는 캐시에서 Authentication을 바로 꺼낸 경우 null일 수 있다.
+    public static JwtVerification success(Claims claims, Authentication authentication) {
+        return new JwtVerification(claims, authentication, null);
+    }
+
+    public static JwtVerification failure(JwtFailureReason failureReason) {
+        return FAILURES[failureReason.ordinal()];
+    }
+
+    public boolean isValid() {
+        return failureReason == null;
+    }
+
+    // 검증에 실패한 경우 null을 반환한다.
+    public Claims getClaims() {
+        return claims;
+    }
+
+    // TokenProvider.authenticate()로 검증한 경우에만 값이 있다.
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    // 검증에 성공한 경우 null을 반환한다.
+    public JwtFailureReason getFailureReason() {
+        return failureReason;
+    }
+}
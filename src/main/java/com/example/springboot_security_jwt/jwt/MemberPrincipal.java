@@ -0,0 +1,34 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// 로그인에 성공한 사용자의 principal이다. User에 닉네임과 프로필 버전을 더한다.
+// TokenProvider.createToken()은 principal이 이 타입이면 닉네임과 프로필 버전을 claims(nick, pv)로 토큰에 담는다.
+// 그러면 /api/user는 데이터베이스를 조회하지 않고 검증된 토큰만으로 응답할 수 있다.
+public class MemberPrincipal extends User {
+    private final String nickname;
+    private final long profileVersion;
+
+    public MemberPrincipal(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                           String nickname, long profileVersion) {
+        super(username, password, authorities);
+        this.nickname = nickname;
+        this.profileVersion = profileVersion;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+
+    // 비밀번호 해시만 바꾼 새 principal을 반환한다. (UserDetailsPasswordService.updatePassword)
+    public MemberPrincipal withPassword(String password) {
+        return new MemberPrincipal(getUsername(), password, getAuthorities(), nickname, profileVersion);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 토큰에 담긴 프로필(닉네임, 권한)이 아직 최신인지 데이터베이스 없이 판단한다.
+// 프로필이 바뀐 사용자의 최신 프로필 버전만 메모리에 보관하고, 토큰의 pv claim이 그보다 작으면 오래된 토큰으로 본다.
+// 프로필이 바뀐 뒤 액세스 토큰 유효 시간이 지나면 이전 버전의 토큰은 모두 만료되므로 항목을 지운다.
+// 따라서 대부분의 사용자는 항목이 없고, 요청마다 하는 확인은 빈 Map 조회로 끝난다.
+// 영속 저장과 시작 시 복구는 MemberService가 member.profile_version, profile_updated_at 컬럼으로 담당한다.
+// jwt.profile-claims.enabled가 false이면 토큰의 claims를 사용하지 않고 항상 데이터베이스(MemberCache)를 조회한다.
+@Component
+public class ProfileVersionRegistry {
+    private final boolean enabled;
+    private final long retentionMillis;
+    // username -> 최신 프로필 버전과 항목을 지워도 되는 시각(밀리초)
+    private final Map<String, Entry> versions = new ConcurrentHashMap<>();
+
+    public ProfileVersionRegistry(
+        @Value("${jwt.profile-claims.enabled:true}") boolean enabled,
+        @Value("${jwt.token-validity-in-seconds}") long tokenValidityInSeconds
+    ) {
+        this.enabled = enabled;
+        this.retentionMillis = tokenValidityInSeconds * 1000;
+    }
+
+    // 토큰의 claims만으로 프로필을 응답해도 되는지 확인한다.
+    // 프로필 claims가 없는 예전 토큰이나, 발급된 뒤 프로필이 바뀐 토큰이면 false를 반환한다.
+    public boolean isCurrent(JwtAuthenticationToken authentication) {
+        if (!enabled || !authentication.hasProfile()) {
+            return false;
+        }
+        if (versions.isEmpty()) {
+            return true;
+        }
+        Entry entry = versions.get(authentication.getName());
+        return entry == null || authentication.getProfileVersion() >= entry.version();
+    }
+
+    // 프로필이 바뀌었음을 기록한다. changedAtMillis 이전에 발급된 토큰이 모두 만료될 때까지 보관한다.
+    public void changed(String username, long version, long changedAtMillis) {
+        long expiresAtMillis = changedAtMillis + retentionMillis;
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        versions.merge(username, new Entry(version, expiresAtMillis),
+            (existing, added) -> existing.version() >= added.version() ? existing : added);
+    }
+
+    // 이 시각 이후에 바뀐 프로필만 기록할 필요가 있다. 시작 시 복구할 범위를 정하는 데 사용한다.
+    public long retentionStartMillis(long nowMillis) {
+        return nowMillis - retentionMillis;
+    }
+
+    // 모든 토큰이 만료되어 더 이상 필요 없는 프로필 버전을 jwt.profile-claims.purge-interval-ms마다 지운다.
+    @Scheduled(fixedDelayString = "${jwt.profile-claims.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        versions.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    private record Entry(long version, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// 경로별 권한 규칙을 RoleRegistry의 비트 집합으로 검사한다. @PreAuthorize("hasAnyRole('USER','ADMIN')")를 대신한다.
+// 필요한 역할은 규칙을 만들 때 한 번만 비트 집합으로 바꾸고, 사용자의 역할은 토큰을 검증할 때 JwtAuthenticationToken에
+// 담아 두므로 요청마다 SpEL 평가, 권한 목록 순회, 문자열 비교 없이 비트 AND 한 번으로 판단한다.
+// 서블릿(SecurityConfig)과 WebFlux(ReactiveSecurityConfig) 설정이 같은 규칙 객체를 사용할 수 있도록 두 인터페이스를 함께 구현한다.
+public final class RoleAuthorizationManager<T> implements AuthorizationManager<T>, ReactiveAuthorizationManager<T> {
+    // 판단 결과는 두 가지뿐이므로 미리 만들어 두고 공유한다.
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final Mono<AuthorizationDecision> GRANTED_MONO = Mono.just(GRANTED);
+    private static final Mono<AuthorizationDecision> DENIED_MONO = Mono.just(DENIED);
+
+    private final RoleRegistry roleRegistry;
+    private final long requiredRoles;
+    private final String description;
+
+    private RoleAuthorizationManager(RoleRegistry roleRegistry, long requiredRoles, String description) {
+        this.roleRegistry = roleRegistry;
+        this.requiredRoles = requiredRoles;
+        this.description = description;
+    }
+
+    // 주어진 역할 중 하나라도 있으면 허용한다. 역할 이름은 hasAnyRole()과 같이 ROLE_ 접두사를 생략한다.
+    public static <T> RoleAuthorizationManager<T> hasAnyRole(RoleRegistry roleRegistry, String... roles) {
+        return new RoleAuthorizationManager<>(roleRegistry, roleRegistry.maskOf(roles),
+            "hasAnyRole" + Arrays.toString(roles));
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        return isGranted(authentication.get()) ? GRANTED : DENIED;
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, T object) {
+        return authentication
+            .flatMap(value -> isGranted(value) ? GRANTED_MONO : DENIED_MONO)
+            .defaultIfEmpty(DENIED);
+    }
+
+    // JwtFilter가 만든 JwtAuthenticationToken은 비트 집합을 이미 가지고 있다.
+    // 그 밖의 Authentication(익명 사용자 등)은 권한 목록을 그때 비트 집합으로 바꾼다.
+    // setAuthenticated(false)로 인증이 취소된 Authentication은 권한이 있어도 거부한다.
+    private boolean isGranted(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        long roles = authentication instanceof JwtAuthenticationToken token
+            ? token.getRoleBits()
+            : roleRegistry.bitsOf(authentication.getAuthorities());
+        return (roles & requiredRoles) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+// 권한 이름(ROLE_USER, ROLE_ADMIN 등)마다 long의 비트 하나를 정해 두는 고정된 목록이다.
+// 시작할 때 authority 테이블에서 한 번 읽어서 만들고(AuthorizationConfig), 이후에는 바뀌지 않는다.
+// 비트 번호는 권한 이름 순서로 정해지므로 같은 authority 테이블이면 항상 같은 번호가 된다.
+// 토큰을 검증할 때 권한 목록을 비트 집합으로 바꿔 JwtAuthenticationToken에 담아 두면,
+// 요청마다 하는 권한 검사(RoleAuthorizationManager)는 비트 AND 한 번으로 끝난다.
+// compact 토큰(CompactTokenCodec)은 권한 이름 대신 이 비트 집합과 레지스트리 id를 담는다.
+public final class RoleRegistry {
+    private static final String ROLE_PREFIX = "ROLE_";
+    // 비트 집합마다 권한 목록을 하나씩 캐시한다. 조합의 수가 많지 않지만 무한히 늘어나지 않도록 상한을 둔다.
+    private static final int MAX_CACHED_SETS = 1024;
+
+    private final List<String> authorityNames;
+    private final Map<String, Long> bits;
+    private final int id;
+    private final ConcurrentMap<Long, List<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
+
+    private RoleRegistry(Collection<String> authorityNames) {
+        List<String> sorted = authorityNames.stream().distinct().sorted().toList();
+        if (sorted.size() > Long.SIZE) {
+            throw new IllegalStateException("권한은 " + Long.SIZE + "개까지 등록할 수 있습니다: " + sorted.size());
+        }
+        Map<String, Long> bits = new HashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            bits.put(sorted.get(i), 1L << i);
+        }
+        this.authorityNames = sorted;
+        this.bits = Map.copyOf(bits);
+        CRC32 crc = new CRC32();
+        crc.update(String.join(",", sorted).getBytes(StandardCharsets.UTF_8));
+        this.id = (int) crc.getValue();
+    }
+
+    // 권한 이름 목록으로 레지스트리를 만든다. 벤치마크처럼 스프링 컨텍스트 밖에서 사용할 때도 쓴다.
+    public static RoleRegistry of(Collection<String> authorityNames) {
+        return new RoleRegistry(authorityNames);
+    }
+
+    public static RoleRegistry of(String... authorityNames) {
+        return new RoleRegistry(List.of(authorityNames));
+    }
+
+    public List<String> getAuthorityNames() {
+        return authorityNames;
+    }
+
+    // 권한 이름 목록(비트 번호 배정)을 나타내는 값이다. 권한이 추가되거나 지워지면 비트 번호가 바뀔 수 있으므로,
+    // 비트 집합을 담은 compact 토큰은 이 값이 같은 레지스트리에서만 받아들인다.
+    public int getId() {
+        return id;
+    }
+
+    // 권한 목록을 비트 집합으로 바꾼다. 레지스트리에 없는 권한(ROLE_ANONYMOUS 등)은 비트가 없으므로 무시한다.
+    public long bitsOf(Collection<? extends GrantedAuthority> authorities) {
+        long result = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Long bit = bits.get(authority.getAuthority());
+            if (bit != null) {
+                result |= bit;
+            }
+        }
+        return result;
+    }
+
+    // 토큰에 담을 비트 집합을 만든다. 비트로 나타낼 수 없는 권한이 있으면 권한을 잃지 않도록 실패한다.
+    public long requireBitsOf(Collection<? extends GrantedAuthority> authorities) {
+        long result = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Long bit = bits.get(authority.getAuthority());
+            if (bit == null) {
+                throw new IllegalArgumentException("authority 테이블에 없는 권한입니다: " + authority.getAuthority());
+            }
+            result |= bit;
+        }
+        return result;
+    }
+
+    // 비트 집합을 GrantedAuthorities의 공유 인스턴스로 이루어진 불변 권한 목록으로 되돌린다.
+    // 등록되지 않은 비트가 있으면 null을 반환한다.
+    public List<GrantedAuthority> authoritiesOf(long roleBits) {
+        List<GrantedAuthority> authorities = authoritySets.get(roleBits);
+        if (authorities != null) {
+            return authorities;
+        }
+        if (authorityNames.size() < Long.SIZE && (roleBits >>> authorityNames.size()) != 0) {
+            return null;
+        }
+        List<GrantedAuthority> decoded = new ArrayList<>();
+        for (int i = 0; i < authorityNames.size(); i++) {
+            if ((roleBits & (1L << i)) != 0) {
+                decoded.add(GrantedAuthorities.of(authorityNames.get(i)));
+            }
+        }
+        authorities = List.copyOf(decoded);
+        if (authoritySets.size() < MAX_CACHED_SETS) {
+            List<GrantedAuthority> existing = authoritySets.putIfAbsent(roleBits, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    // hasAnyRole("USER", "ADMIN")과 같이 ROLE_ 접두사를 생략한 역할 이름들을 비트 집합으로 바꾼다.
+    // 규칙은 시작할 때 만들어지므로, 등록되지 않은 역할이면 오타로 보고 바로 실패한다.
+    public long maskOf(String... roles) {
+        long result = 0L;
+        for (String role : roles) {
+            String authorityName = role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+            Long bit = bits.get(authorityName);
+            if (bit == null) {
+                throw new IllegalArgumentException("authority 테이블에 없는 권한입니다: " + authorityName);
+            }
+            result |= bit;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RoleRegistry " + authorityNames;
+    }
+}
\ No newline at end of file
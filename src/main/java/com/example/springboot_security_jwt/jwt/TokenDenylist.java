@@ -0,0 +1,77 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.example.springboot_security_jwt.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 폐기된 토큰 목록을 메모리에 보관한다.
+// 토큰 id(jti)는 Bloom filter와 정확한 집합(ConcurrentHashMap)에 함께 저장된다.
+// 대부분의 요청은 폐기되지 않은 토큰이므로 Bloom filter에서 바로 "폐기되지 않음"으로 판단되고, 데이터베이스나 잠금 없이 끝난다.
+// Bloom filter가 "있을 수도 있음"이라고 답한 경우에만 정확한 집합을 확인한다.
+// 사용자 단위 폐기(로그아웃 전체, 계정 비활성화)는 그 시각 이전에 발급된 토큰을 모두 거부하는 방식으로 처리한다.
+// 영속 저장과 시작 시 복구는 TokenRevocationService가 담당한다.
+@Component
+public class TokenDenylist {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int expectedRevocations;
+    // jti -> 토큰 만료 시각(밀리초)
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    // username -> 이 시각(초) 이전에 발급된 토큰은 모두 폐기됨
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    public TokenDenylist(@Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations) {
+        this.expectedRevocations = expectedRevocations;
+        this.bloomFilter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    // 토큰이 폐기되었는지 확인한다. jti가 없는 예전 토큰은 사용자 단위 폐기만 적용된다.
+    // 토큰의 발급 시각(iat)은 초 단위로 잘려 있으므로 사용자 단위 폐기 시각도 초 단위로 비교한다.
+    // 폐기한 그 초에 발급된 토큰은 폐기 직전인지 직후인지 구분할 수 없으므로 함께 폐기한다.
+    // 폐기 직후 같은 초 안에 다시 로그인해 받은 토큰도 거부되므로, 그 경우 다시 로그인해야 한다.
+    public boolean isRevoked(String tokenId, String username, long issuedAtMillis) {
+        if (!userCutoffs.isEmpty()) {
+            UserCutoff cutoff = userCutoffs.get(username);
+            if (cutoff != null && Math.floorDiv(issuedAtMillis, 1000) <= cutoff.revokedAtSeconds()) {
+                return true;
+            }
+        }
+        return tokenId != null
+            && bloomFilter.mightContain(tokenId)
+            && revokedTokenIds.containsKey(tokenId);
+    }
+
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        revokedTokenIds.put(tokenId, expiresAtMillis);
+        bloomFilter.put(tokenId);
+    }
+
+    // revokedAtMillis가 속한 초와 그 이전에 발급된 사용자의 토큰을 모두 폐기한다. expiresAtMillis 이후에는 해당 토큰이 모두 만료되므로 항목이 제거된다.
+    public void revokeUser(String username, long revokedAtMillis, long expiresAtMillis) {
+        userCutoffs.merge(username, new UserCutoff(Math.floorDiv(revokedAtMillis, 1000), expiresAtMillis),
+            (existing, added) -> existing.revokedAtSeconds() >= added.revokedAtSeconds() ? existing : added);
+    }
+
+    // 만료된 항목을 지우고 남은 jti로 Bloom filter를 다시 만든다.
+    // 새 필터를 채운 뒤 교체하고, 그 사이에 추가된 jti를 놓치지 않도록 교체 후 한 번 더 채운다.
+    public void purgeExpired(long nowMillis) {
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        userCutoffs.values().removeIf(cutoff -> cutoff.expiresAtMillis() <= nowMillis);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokenIds.size() * 2), FALSE_POSITIVE_RATE);
+        revokedTokenIds.keySet().forEach(rebuilt::put);
+        this.bloomFilter = rebuilt;
+        revokedTokenIds.keySet().forEach(rebuilt::put);
+    }
+
+    public int size() {
+        return revokedTokenIds.size() + userCutoffs.size();
+    }
+
+    private record UserCutoff(long revokedAtSeconds, long expiresAtMillis) {
+    }
+}
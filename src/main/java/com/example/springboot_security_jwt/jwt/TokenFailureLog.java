@@ -0,0 +1,68 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// JWT 검증 실패를 요청마다 로그로 남기지 않고, 일정 시간(jwt.failure-log.interval-ms) 동안 모아서 한 줄로 남긴다.
+// 만료된 토큰이나 잘못된 토큰이 대량으로 들어와도 로그는 주기마다 최대 한 줄이므로 로그 처리량과 디스크 I/O가 늘지 않는다.
+// 실패 이유별 횟수와, 이유별로 주기마다 처음 들어온 요청 하나의 예시(uri, ip)를 기록한다.
+// 예: event=jwt_verification_failures window_seconds=60 total=1520 expired=1500 malformed=20 sample.expired="uri=/api/user ip=10.0.0.7"
+@Component
+public class TokenFailureLog {
+    private static final Logger logger = LoggerFactory.getLogger(TokenFailureLog.class);
+    private static final JwtFailureReason[] REASONS = JwtFailureReason.values();
+
+    private final LongAdder[] counts = new LongAdder[REASONS.length];
+    private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(REASONS.length);
+    private volatile long windowStartedAt = System.currentTimeMillis();
+
+    public TokenFailureLog() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    // 실패 한 건을 기록한다. 횟수는 LongAdder로 세므로 여러 스레드가 동시에 호출해도 경쟁이 적고,
+    // 예시 문자열은 주기마다 이유별로 처음 한 번만 만든다.
+    public void record(JwtFailureReason reason, String uri, String clientIp) {
+        int index = reason.ordinal();
+        counts[index].increment();
+        if (samples.get(index) == null) {
+            samples.compareAndSet(index, null, "uri=" + uri + " ip=" + clientIp);
+        }
+    }
+
+    // 모아 둔 횟수를 로그로 남기고 초기화한다. 실패가 없었으면 아무것도 남기지 않는다.
+    @Scheduled(fixedDelayString = "${jwt.failure-log.interval-ms:60000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        long windowSeconds = Math.max(0, (now - windowStartedAt) / 1000);
+        windowStartedAt = now;
+
+        long total = 0;
+        StringBuilder counts = new StringBuilder();
+        StringBuilder samples = new StringBuilder();
+        for (JwtFailureReason reason : REASONS) {
+            long count = this.counts[reason.ordinal()].sumThenReset();
+            String sample = this.samples.getAndSet(reason.ordinal(), null);
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            String name = reason.name().toLowerCase();
+            counts.append(' ').append(name).append('=').append(count);
+            if (sample != null) {
+                samples.append(" sample.").append(name).append("=\"").append(sample).append('"');
+            }
+        }
+        if (total > 0) {
+            logger.info("event=jwt_verification_failures window_seconds={} total={}{}{}", windowSeconds, total, counts, samples);
+        }
+    }
+}
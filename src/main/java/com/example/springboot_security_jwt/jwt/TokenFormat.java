@@ -0,0 +1,14 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// 로그인과 토큰 재발급 요청에서 클라이언트가 고르는 액세스 토큰 형식이다. 생략하면 JWT이다.
+// 어느 형식이든 같은 키로 서명되고, JwtFilter는 접두사로 형식을 구분해서 둘 다 받아들인다.
+public enum TokenFormat {
+    // 표준 JWT (JSON 헤더와 claims, Base64URL)
+    @JsonProperty("jwt")
+    JWT,
+    // 바이너리 payload를 사용하는 짧은 토큰 (CompactTokenCodec)
+    @JsonProperty("compact")
+    COMPACT
+}
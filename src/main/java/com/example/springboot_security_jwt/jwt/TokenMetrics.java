@@ -0,0 +1,71 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 토큰 검증과 발급에 대한 Micrometer 지표를 기록한다.
+// jwt.verification: 서명 검증과 claims 파싱에 걸린 시간 (result=success|failure)
+// jwt.verification.failures: 실패 이유별 횟수 (reason=invalid_signature|malformed|expired|...)
+// jwt.issuance: 토큰 발급(서명)에 걸린 시간
+// 모든 Timer와 Counter는 생성할 때 미리 등록해 두므로, 요청마다 태그를 만들거나 레지스트리를 조회하지 않고
+// Timer.Sample도 사용하지 않아 기록할 때 객체가 할당되지 않는다.
+@Component
+public class TokenMetrics {
+    private final Timer verificationSuccess;
+    private final Timer verificationFailure;
+    private final Map<JwtFailureReason, Counter> failures = new EnumMap<>(JwtFailureReason.class);
+    private final Timer issuance;
+
+    public TokenMetrics(MeterRegistry meterRegistry) {
+        this.verificationSuccess = verificationTimer(meterRegistry, "success");
+        this.verificationFailure = verificationTimer(meterRegistry, "failure");
+        for (JwtFailureReason reason : JwtFailureReason.values()) {
+            failures.put(reason, Counter.builder("jwt.verification.failures")
+                .description("실패 이유별 JWT 검증 실패 횟수")
+                .tag("reason", reason.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        this.issuance = Timer.builder("jwt.issuance")
+            .description("JWT 발급(서명)에 걸린 시간")
+            .register(meterRegistry);
+    }
+
+    // 지표를 기록하지 않는 인스턴스를 만든다. 벤치마크처럼 스프링 컨텍스트 밖에서 TokenProvider를 만들 때 사용한다.
+    public static TokenMetrics noop() {
+        return new TokenMetrics(new CompositeMeterRegistry());
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+            .description("JWT 서명 검증과 claims 파싱에 걸린 시간")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    // verify()가 끝난 뒤 호출한다. reason이 null이면 성공이다.
+    public void recordVerification(long elapsedNanos, JwtFailureReason reason) {
+        if (reason == null) {
+            verificationSuccess.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+        else {
+            verificationFailure.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            failures.get(reason).increment();
+        }
+    }
+
+    // 서명 검증 없이 거절된 경우(예: 폐기된 토큰)의 실패 횟수만 기록한다.
+    public void recordFailure(JwtFailureReason reason) {
+        failures.get(reason).increment();
+    }
+
+    public void recordIssuance(long elapsedNanos) {
+        issuance.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,109 +1,228 @@
 package com.example.springboot_security_jwt.jwt;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.InitializingBean;
 
-import java.security.Key;
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 // JWT를 생성하고, 검증하며, JWT로부터 인증 정보를 추출하는 역할을 한다.
 // Spring Security와 연동하여 JWT 기반의 인증을 처리한다.
 
-// TokenProvider빈은 application.yml에서 정의한 jwt.secret, jwt.token-validity-in-seconds 값을 주입받도록 한다.
+// TokenProvider빈은 application.yml에서 정의한 jwt.token-validity-in-seconds 값을 주입받도록 한다.
+// 서명 알고리즘과 키는 JwtKeyRing이 관리한다. (jwt.algorithm, jwt.secret, jwt.key-store.*)
 // InitializingBean을 구현하고 afterPropertiesSet()을 오버라이드한 이유는 빈이 생성되고 의존성 주입까지 끝낸 이후에
-// 주입받은 secret 값을 base64 decode하여 key 변수에 할당하기 위함이다.
+// 키 링을 사용하는 JwtParser를 한 번만 만들기 위함이다.
 @Component
 public class TokenProvider implements InitializingBean {
-    private final Logger logger = LoggerFactory.getLogger(TokenProvider.class);
     private static final String AUTHORITIES_KEY = "auth";
-    private final String secret;
+    // 로그인한 사용자의 닉네임과 프로필 버전이다. /api/user가 데이터베이스 없이 응답하는 데 사용된다.
+    private static final String NICKNAME_KEY = "nick";
+    private static final String PROFILE_VERSION_KEY = "pv";
+    private final JwtKeyRing keyRing;
     private final long tokenValidityInMilliseconds;
-    private Key key;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenDenylist tokenDenylist;
+    private final TokenMetrics tokenMetrics;
+    private final RoleRegistry roleRegistry;
+    // compact 형식의 토큰을 같은 키 링으로 만들고 검증한다.
+    private final CompactTokenCodec compactTokenCodec;
+    // 한 번만 만들어 모든 스레드가 공유한다. JwtParser는 불변이므로 thread-safe하다.
+    // 검증 키는 토큰의 kid에 따라 키 링에서 찾으므로 키가 교체되어도 파서를 다시 만들 필요가 없다.
+    private JwtParser jwtParser;
 
     // application.yml에 정의된 설정 값들을 받아와서 TokenProvider 빈을 초기화한다.
     public TokenProvider(
-        @Value("${jwt.secret}") String secret,
-        @Value("${jwt.token-validity-in-seconds}") long tokenValidityInMilliseconds
+        JwtKeyRing keyRing,
+        @Value("${jwt.token-validity-in-seconds}") long tokenValidityInMilliseconds,
+        VerifiedTokenCache verifiedTokenCache,
+        TokenDenylist tokenDenylist,
+        TokenMetrics tokenMetrics,
+        RoleRegistry roleRegistry
     ) {
-        this.secret = secret;
+        this.keyRing = keyRing;
         this.tokenValidityInMilliseconds = tokenValidityInMilliseconds * 1000;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenMetrics = tokenMetrics;
+        this.roleRegistry = roleRegistry;
+        this.compactTokenCodec = new CompactTokenCodec(keyRing, roleRegistry);
     }
 
     @Override
     public void afterPropertiesSet() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
     }
 
     // Authentication 객체에 포함되어 있는 권한 정보들을 담은 토큰을 생성하고
     // jwt.token-validity-in-seconds 값을 이용해 토큰의 만료 시간을 지정한다.
+    // principal이 MemberPrincipal이면 닉네임과 프로필 버전도 claims로 담는다.
+    // 발급에 걸린 시간은 TokenMetrics(jwt.issuance)에 기록된다.
     public String createToken(Authentication authentication) {
-        String authorities = authentication.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .collect(Collectors.joining(","));
+        return createToken(authentication, TokenFormat.JWT);
+    }
 
+    // format이 COMPACT이면 같은 정보를 CompactTokenCodec의 바이너리 형식으로 담는다. null이면 JWT이다.
+    public String createToken(Authentication authentication, TokenFormat format) {
+        long startedAt = System.nanoTime();
         long now = (new Date()).getTime();
         Date validity = new Date(now + this.tokenValidityInMilliseconds);
+        UUID tokenId = UUID.randomUUID();
+
+        String token = format == TokenFormat.COMPACT
+            ? createCompactToken(authentication, tokenId, now, validity.getTime())
+            : createJwt(authentication, tokenId, now, validity);
+        tokenMetrics.recordIssuance(System.nanoTime() - startedAt);
+        return token;
+    }
+
+    private String createCompactToken(Authentication authentication, UUID tokenId, long now, long validity) {
+        String nickname = null;
+        long profileVersion = JwtAuthenticationToken.NO_PROFILE_VERSION;
+        if (authentication.getPrincipal() instanceof MemberPrincipal principal && principal.getNickname() != null) {
+            nickname = principal.getNickname();
+            profileVersion = principal.getProfileVersion();
+        }
+        return compactTokenCodec.encode(authentication.getName(), authentication.getAuthorities(), tokenId, now,
+            validity, nickname, profileVersion);
+    }
+
+    private String createJwt(Authentication authentication, UUID tokenId, long now, Date validity) {
+        String authorities = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.joining(","));
 
-        return Jwts.builder()
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        JwtBuilder builder = Jwts.builder();
+        if (signingKey.keyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId());
+        }
+        if (authentication.getPrincipal() instanceof MemberPrincipal principal && principal.getNickname() != null) {
+            builder.claim(NICKNAME_KEY, principal.getNickname())
+                .claim(PROFILE_VERSION_KEY, principal.getProfileVersion());
+        }
+        return builder
+            // 토큰을 개별적으로 폐기할 수 있도록 고유한 id(jti)와 발급 시각(iat)을 담는다.
+            .setId(tokenId.toString())
+            .setIssuedAt(new Date(now))
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
+            .signWith(signingKey.key(), keyRing.getAlgorithm())
             .setExpiration(validity)
             .compact();
     }
 
-    // 토큰에 담겨있는 권한 정보들을 이용해 Authentication 객체를 리턴한다.
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts
-            .parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    // 토큰을 한 번만 파싱하여 서명 검증과 claims 추출을 함께 수행한다.
+    // 검증에 성공하면 Claims를, 실패하면 실패 이유를 담은 결과를 반환한다.
+    // 걸린 시간과 결과는 TokenMetrics에 기록된다. 실패 로그는 여기에서 남기지 않고 TokenFailureLog가 모아서 남긴다.
+    // compact 토큰은 접두사(ct.)로 구분하며, Claims 대신 만들어진 Authentication을 결과에 담는다.
+    public JwtVerification verify(String token) {
+        long startedAt = System.nanoTime();
+        JwtVerification verification;
+        if (CompactTokenCodec.isCompact(token)) {
+            verification = compactTokenCodec.decode(token, System.currentTimeMillis());
+        }
+        else {
+            // 형식이 잘못되었거나 이미 만료된 토큰은 jjwt 예외를 만들지 않고 바로 거절한다.
+            JwtFailureReason rejected = TokenStructure.precheck(token, System.currentTimeMillis());
+            verification = rejected != null ? JwtVerification.failure(rejected) : parse(token);
+        }
+        tokenMetrics.recordVerification(System.nanoTime() - startedAt, verification.getFailureReason());
+        return verification;
     }
 
-    // 토큰을 검증하는 역할을 수행한다.
-    public boolean validateToken(String token) {
+    private JwtVerification parse(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return JwtVerification.success(jwtParser.parseClaimsJws(token).getBody());
+        }
+        catch (io.jsonwebtoken.security.SecurityException e) {
+            return JwtVerification.failure(JwtFailureReason.INVALID_SIGNATURE);
         }
-        catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            logger.info("잘못된 JWT 서명입니다.");
+        catch (MalformedJwtException e) {
+            return JwtVerification.failure(JwtFailureReason.MALFORMED);
         }
         catch (ExpiredJwtException e) {
-            logger.info("만료된 JWT 토큰입니다.");
+            return JwtVerification.failure(JwtFailureReason.EXPIRED);
         }
         catch (UnsupportedJwtException e) {
-            logger.info("지원되지 않는 JWT 토큰입니다.");
+            return JwtVerification.failure(JwtFailureReason.UNSUPPORTED);
         }
         catch (IllegalArgumentException e) {
-            logger.info("JWT 토큰이 잘못되었습니다.");
+            return JwtVerification.failure(JwtFailureReason.ILLEGAL_ARGUMENT);
+        }
+    }
+
+    // 토큰을 검증하고 Authentication 객체까지 만들어 결과에 담는다.
+    // 캐시가 켜져 있으면 이미 검증된 토큰은 파싱 없이 캐시된 Authentication을 반환하고,
+    // 새로 검증된 토큰은 만료 시각까지 캐시에 저장한다.
+    // 한 요청에서 setAuthenticated(false)를 호출해도 다른 요청에 영향을 주지 않도록 캐시에 저장된 인스턴스 대신 복사본을 반환한다.
+    public JwtVerification authenticate(String token) {
+        JwtAuthenticationToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            if (isRevoked(cached)) {
+                tokenMetrics.recordFailure(JwtFailureReason.REVOKED);
+                return JwtVerification.failure(JwtFailureReason.REVOKED);
+            }
+            return JwtVerification.success(null, cached.copy());
         }
-        return false;
+
+        JwtVerification verification = verify(token);
+        if (!verification.isValid()) {
+            return verification;
+        }
+
+        Claims claims = verification.getClaims();
+        JwtAuthenticationToken authentication = claims != null
+            ? getAuthentication(token, claims)
+            : (JwtAuthenticationToken) verification.getAuthentication();
+        if (isRevoked(authentication)) {
+            tokenMetrics.recordFailure(JwtFailureReason.REVOKED);
+            return JwtVerification.failure(JwtFailureReason.REVOKED);
+        }
+        verifiedTokenCache.put(token, authentication, authentication.getExpiresAtMillis());
+        return JwtVerification.success(claims, authentication.copy());
+    }
+
+    // 폐기 목록은 잠금 없이 메모리에서만 확인한다. 캐시에서 꺼낸 토큰도 매번 확인한다.
+    private boolean isRevoked(JwtAuthenticationToken authentication) {
+        return tokenDenylist.isRevoked(authentication.getTokenId(), authentication.getName(),
+            authentication.getIssuedAtMillis());
+    }
+
+    // 이미 검증된 Claims에 담겨있는 권한 정보들을 이용해 Authentication 객체를 리턴한다.
+    // 권한 목록은 GrantedAuthorities가 공유하는 불변 인스턴스를 사용하므로 요청마다 새로 만들지 않는다.
+    // 권한 검사에 쓰이는 역할 비트 집합도 여기서 한 번만 계산한다. 이후 요청은 VerifiedTokenCache에서 그대로 꺼내 쓴다.
+    public JwtAuthenticationToken getAuthentication(String token, Claims claims) {
+        Object claim = claims.get(AUTHORITIES_KEY);
+        List<GrantedAuthority> authorities = GrantedAuthorities.decode(claim != null ? claim.toString() : "");
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        Object nickname = claims.get(NICKNAME_KEY);
+        Object profileVersion = claims.get(PROFILE_VERSION_KEY);
+        return new JwtAuthenticationToken(claims.getSubject(), token,
+            authorities,
+            roleRegistry.bitsOf(authorities),
+            claims.getId(),
+            issuedAt != null ? issuedAt.getTime() : 0L,
+            expiration != null ? expiration.getTime() : 0L,
+            nickname instanceof String value ? value : null,
+            profileVersion instanceof Number value ? value.longValue() : JwtAuthenticationToken.NO_PROFILE_VERSION);
+    }
+
+    // 토큰에 담겨있는 권한 정보들을 이용해 Authentication 객체를 리턴한다.
+    // 유효하지 않은 토큰이면 JwtException이 발생한다.
+    public Authentication getAuthentication(String token) {
+        return getAuthentication(token, jwtParser.parseClaimsJws(token).getBody());
+    }
+
+    // 토큰을 검증하는 역할을 수행한다.
+    public boolean validateToken(String token) {
+        return verify(token).isValid();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.example.springboot_security_jwt.jwt;
+
+import java.util.Base64;
+
+// jjwt로 파싱하기 전에 토큰을 값싸게 미리 검사한다.
+// jjwt는 잘못된 토큰마다 스택 트레이스를 가진 예외를 던지는데, 필터 체인 안에서는 스택이 깊어 예외 생성 비용이 크다.
+// 형식이 잘못된 토큰과 이미 만료된 토큰은 여기에서 예외 없이 걸러낸다.
+// 만료 여부는 서명을 확인하기 전에 판단하므로, 서명이 틀린 만료 토큰도 EXPIRED로 분류된다. (어느 쪽이든 거절된다)
+final class TokenStructure {
+    // 이보다 긴 토큰은 파싱하지 않는다.
+    static final int MAX_TOKEN_LENGTH = 8192;
+
+    private TokenStructure() {}
+
+    // 문제가 없으면 null을, 확실히 거절할 수 있으면 실패 이유를 반환한다.
+    // 판단할 수 없는 경우(exp가 없는 경우 등)도 null을 반환하고 jjwt의 검증에 맡긴다.
+    static JwtFailureReason precheck(String token, long nowMillis) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return JwtFailureReason.MALFORMED;
+        }
+        // header.payload.signature 형식이고 각 부분이 Base64URL 문자로만 이루어져 있어야 한다.
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                }
+                else if (secondDot < 0) {
+                    secondDot = i;
+                }
+                else {
+                    return JwtFailureReason.MALFORMED;
+                }
+            }
+            else if (!isBase64Url(c)) {
+                return JwtFailureReason.MALFORMED;
+            }
+        }
+        if (firstDot <= 0 || secondDot < 0 || secondDot == firstDot + 1) {
+            return JwtFailureReason.MALFORMED;
+        }
+
+        long expiresAtSeconds = readExp(token, firstDot + 1, secondDot);
+        if (expiresAtSeconds >= 0 && expiresAtSeconds * 1000 < nowMillis) {
+            return JwtFailureReason.EXPIRED;
+        }
+        return null;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    // payload의 최상위 객체에서 "exp" 키의 값을 읽는다. 찾지 못하거나 숫자가 아니면 -1을 반환한다.
+    // 문자열 값이나 중첩된 객체 안의 "exp"를 잘못 읽지 않도록, 문자열은 통째로 건너뛰고
+    // 최상위 객체에서 '{'나 ',' 바로 다음(공백 허용)에 오는 문자열만 키로 본다.
+    private static long readExp(String token, int start, int end) {
+        byte[] payload;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(start, end));
+        }
+        catch (IllegalArgumentException e) {
+            return -1;
+        }
+        int depth = 0;
+        boolean expectKey = false;
+        for (int i = 0; i < payload.length; i++) {
+            byte b = payload[i];
+            if (b == '"') {
+                int close = closingQuote(payload, i + 1);
+                if (close < 0) {
+                    return -1;
+                }
+                if (depth == 1 && expectKey && isExpKey(payload, i + 1, close)) {
+                    return readNumberAfterColon(payload, close + 1);
+                }
+                expectKey = false;
+                i = close;
+            }
+            else if (b == '{' || b == '[') {
+                depth++;
+                expectKey = b == '{';
+            }
+            else if (b == '}' || b == ']') {
+                depth--;
+                expectKey = false;
+            }
+            else if (b == ',') {
+                expectKey = true;
+            }
+            else if (!isWhitespace(b)) {
+                expectKey = false;
+            }
+        }
+        return -1;
+    }
+
+    // from부터 시작하는 문자열의 닫는 따옴표 위치를 반환한다. 역슬래시로 이스케이프된 따옴표는 건너뛴다.
+    private static int closingQuote(byte[] payload, int from) {
+        for (int i = from; i < payload.length; i++) {
+            if (payload[i] == '\\') {
+                i++;
+            }
+            else if (payload[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isExpKey(byte[] payload, int from, int to) {
+        return to - from == 3 && payload[from] == 'e' && payload[from + 1] == 'x' && payload[from + 2] == 'p';
+    }
+
+    private static long readNumberAfterColon(byte[] payload, int from) {
+        int i = skipWhitespace(payload, from);
+        if (i >= payload.length || payload[i] != ':') {
+            return -1;
+        }
+        i = skipWhitespace(payload, i + 1);
+        long value = 0;
+        int digits = 0;
+        while (i < payload.length && payload[i] >= '0' && payload[i] <= '9' && digits < 18) {
+            value = value * 10 + (payload[i] - '0');
+            digits++;
+            i++;
+        }
+        return digits > 0 ? value : -1;
+    }
+
+    private static int skipWhitespace(byte[] payload, int from) {
+        int i = from;
+        while (i < payload.length && isWhitespace(payload[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
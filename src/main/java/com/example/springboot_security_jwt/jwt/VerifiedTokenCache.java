@@ -0,0 +1,106 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+// 이미 검증된 토큰의 Authentication 객체를 저장해 두는 캐시이다.
+// 같은 토큰이 다시 들어오면 서명 검증과 claims 파싱을 건너뛰고 저장된 Authentication을 그대로 사용한다.
+// 키는 토큰 문자열의 SHA-256 해시이며, 각 항목은 늦어도 토큰의 만료 시간(exp)에 제거된다.
+// jwt.cache.enabled 값으로 켜고 끌 수 있다.
+@Component
+public class VerifiedTokenCache {
+    private final Cache<ByteBuffer, Entry> cache;
+
+    public VerifiedTokenCache(
+        @Value("${jwt.cache.enabled:false}") boolean enabled,
+        @Value("${jwt.cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.cache = enabled ? Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new ExpiresAtTokenExpiration())
+            .recordStats()
+            .build() : null;
+    }
+
+    // 캐시를 사용하지 않는 인스턴스를 만든다. 벤치마크처럼 스프링 컨텍스트 밖에서 TokenProvider를 만들 때 사용한다.
+    public static VerifiedTokenCache disabled() {
+        return new VerifiedTokenCache(false, 0);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    // 캐시에 저장된 Authentication을 반환한다. 없거나 만료되었으면 null을 반환한다.
+    public JwtAuthenticationToken get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(hash(token));
+        return entry != null ? entry.authentication() : null;
+    }
+
+    // 검증된 토큰의 Authentication을 토큰의 만료 시각(밀리초)까지 저장한다.
+    public void put(String token, JwtAuthenticationToken authentication, long expiresAtMillis) {
+        if (cache == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(hash(token), new Entry(authentication, expiresAtMillis));
+    }
+
+    // hit/miss/eviction 횟수를 반환한다. 캐시가 꺼져 있으면 빈 통계를 반환한다.
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    // Micrometer에 캐시 지표를 등록할 때 사용한다. 캐시가 꺼져 있으면 null이다.
+    public Cache<ByteBuffer, ?> getNativeCache() {
+        return cache;
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private record Entry(JwtAuthenticationToken authentication, long expiresAtMillis) {
+    }
+
+    // 각 항목의 수명을 토큰의 남은 유효 시간으로 정한다.
+    private static class ExpiresAtTokenExpiration implements Expiry<ByteBuffer, Entry> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Entry entry, long currentTime) {
+            long remainingMillis = entry.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.springboot_security_jwt.repository;
+
+import com.example.springboot_security_jwt.entity.Authority;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.springboot_security_jwt.repository;
+
+import com.example.springboot_security_jwt.dto.AuthorityDto;
+import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.dto.MemberPageDto;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+// 회원 목록을 member_id 순서로 조금씩(keyset pagination) 읽는다.
+// findAll()로 Member 엔티티를 읽으면 회원마다 authorities를 따로 조회(N+1)하고, 영속성 컨텍스트에 모든 엔티티가 쌓인다.
+// 여기서는 member_id > after인 회원 limit명과 그 권한을 조인 쿼리 한 번으로 읽고, 엔티티 대신 MemberDto로 바로 만든다.
+// OFFSET을 사용하지 않으므로 뒤쪽 페이지도 앞쪽 페이지와 같은 비용으로 읽힌다. (member_id 기본 키 인덱스 사용)
+@Repository
+@AllArgsConstructor
+public class MemberListRepository {
+    // 회원을 먼저 limit명으로 자른 뒤 권한을 조인해야, 권한이 여러 개인 회원 때문에 페이지 크기가 달라지지 않는다.
+    private static final String SELECT_PAGE = """
+        SELECT m.member_id, m.username, m.nickname, ua.authority_name
+        FROM (SELECT member_id, username, nickname FROM member WHERE member_id > ? ORDER BY member_id LIMIT ?) m
+        LEFT JOIN user_authority ua ON ua.member_id = m.member_id
+        ORDER BY m.member_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // member_id가 afterMemberId보다 큰 회원을 최대 limit명 읽는다.
+    // 한 페이지가 가득 찼으면 nextCursor에 마지막 member_id를 담고, 마지막 페이지이면 null을 담는다.
+    public MemberPageDto findAfter(long afterMemberId, int limit) {
+        List<MemberDto> members = new ArrayList<>(limit);
+        long[] lastMemberId = {-1L};
+        jdbcTemplate.query(SELECT_PAGE, resultSet -> {
+            long memberId = resultSet.getLong("member_id");
+            MemberDto member;
+            if (memberId != lastMemberId[0]) {
+                member = MemberDto.builder()
+                    .username(resultSet.getString("username"))
+                    .nickname(resultSet.getString("nickname"))
+                    .authorityDtoSet(new HashSet<>())
+                    .build();
+                members.add(member);
+                lastMemberId[0] = memberId;
+            }
+            else {
+                member = members.get(members.size() - 1);
+            }
+            String authorityName = resultSet.getString("authority_name");
+            if (authorityName != null) {
+                member.getAuthorityDtoSet().add(AuthorityDto.builder().authorityName(authorityName).build());
+            }
+        }, afterMemberId, limit);
+        return new MemberPageDto(members, members.size() == limit ? lastMemberId[0] : null);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.springboot_security_jwt.entity.Member;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
@@ -13,4 +15,10 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // attributePaths의 authorities는 MemberEntity의 authorities 속성을 나타낸다.
     @EntityGraph(attributePaths = "authorities")
     Optional<Member> findOneWithAuthoritiesByUsername(String username);
+
+    // username의 유니크 인덱스만 확인하는 가벼운 조회이다. 권한 테이블을 조인하지 않는다.
+    boolean existsByUsername(String username);
+
+    // 이 시각 이후에 프로필(닉네임, 권한)이 바뀐 회원을 조회한다. 시작할 때 ProfileVersionRegistry를 다시 만드는 데 사용한다.
+    List<Member> findByProfileUpdatedAtAfter(Instant profileUpdatedAt);
 }
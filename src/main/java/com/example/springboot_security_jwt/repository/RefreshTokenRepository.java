@@ -0,0 +1,35 @@
+package com.example.springboot_security_jwt.repository;
+
+import com.example.springboot_security_jwt.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // 새 액세스 토큰에 권한 정보를 담아야 하므로 회원과 권한을 한 번의 쿼리로 함께 가져온다.
+    @EntityGraph(attributePaths = {"member", "member.authorities"})
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // 아직 사용되지 않은 토큰만 사용됨으로 바꾼다. 같은 토큰으로 동시에 들어온 요청 중 하나만 1을 받는다.
+    @Modifying
+    @Query("update RefreshToken r set r.used = true where r.refreshTokenId = :id and r.used = false and r.revoked = false")
+    int markUsed(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.member in (select m from Member m where m.username = :username)")
+    int revokeAllByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
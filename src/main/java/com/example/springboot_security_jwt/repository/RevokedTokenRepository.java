@@ -0,0 +1,20 @@
+package com.example.springboot_security_jwt.repository;
+
+import com.example.springboot_security_jwt.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // 아직 만료되지 않은 폐기 기록만 가져온다. 시작할 때 메모리의 폐기 목록을 다시 만드는 데 사용된다.
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,11 +1,13 @@
 package com.example.springboot_security_jwt.service;
 
-import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.jwt.GrantedAuthorities;
+import com.example.springboot_security_jwt.jwt.MemberPrincipal;
 import com.example.springboot_security_jwt.repository.MemberRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -17,47 +19,68 @@ import java.util.stream.Collectors;
 @Component("userDetailsService")
 @AllArgsConstructor
 // UserDetailsService 인터페이스는 Spring Security에서 사용자 세부 정보를 로드하는 데 필요한 메서드를 정의한다.
-public class CustomUserDetailsService implements UserDetailsService {
-    private final MemberRepository userRepository;
+// UserDetailsPasswordService를 함께 구현하면 로그인에 성공했을 때 저장된 해시가 현재 설정보다 약한 경우
+// DaoAuthenticationProvider가 updatePassword()를 호출해 새 해시로 바꿔 저장한다.
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private final MemberCache memberCache;
+    private final MemberRepository memberRepository;
 
     // loadUserByUsername 메서드는 Spring Security에서 사용자 인증을 처리하는 데 사용된다.
     // 이 메서드는 UserDetailsService 인터페이스의 구현으로, 주어진 사용자 이름을 기반으로 사용자 정보를 로드한다.
+    // 회원 정보는 MemberCache를 통해 조회하므로 자주 로그인하는 사용자는 데이터베이스를 거치지 않는다.
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(final String username) {
-        return userRepository.findOneWithAuthoritiesByUsername(username)
+        return memberCache.findByUsername(username)
             .map(user -> createUser(username, user))
             .orElseThrow(() -> new UsernameNotFoundException(username + " -> 데이터베이스에서 찾을 수 없습니다."));
     }
 
+    // 로그인에 성공한 사용자의 비밀번호 해시를 현재 설정(해시 방식, BCrypt strength)으로 다시 만든 값으로 교체한다.
+    // newPassword는 이미 PasswordEncoder로 인코딩된 값이다.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        memberRepository.findOneWithAuthoritiesByUsername(user.getUsername())
+            .ifPresent(member -> member.setPassword(newPassword));
+        memberCache.evict(user.getUsername());
+        // 반환한 UserDetails가 인증 결과의 principal이 되므로, 토큰에 닉네임을 담을 수 있도록 MemberPrincipal을 유지한다.
+        if (user instanceof MemberPrincipal principal) {
+            return principal.withPassword(newPassword);
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
     // 이 메서드는 private 접근 제어자로 정의되어 있어, CustomUserDetailsService 클래스 내에서만 호출될 수 있다.
     // org.springframework.security.core.userdetails.User는 Spring Security에서 사용되는 UserDetails의 구현체로, 사용자 정보를 담고 있다.
-    private org.springframework.security.core.userdetails.User createUser(String username, Member member) {
+    // MemberPrincipal은 User에 닉네임과 프로필 버전을 더한 것으로, 발급되는 토큰의 claims에 담긴다.
+    private MemberPrincipal createUser(String username, MemberSnapshot member) {
 
-        // !member.isActivated() 메서드는 사용자가 활성화되어 있는지를 확인한다.
+        // !member.activated() 메서드는 사용자가 활성화되어 있는지를 확인한다.
         // 이 검사는 인증 프로세스 중 활성화되지 않은 사용자 계정을 방지하기 위한 것이다.
-        if (!member.isActivated()) {
+        if (!member.activated()) {
             throw new RuntimeException(username + " -> 활성화되어 있지 않습니다.");
         }
 
-        // member.getAuthorities() 메서드를 호출하여 Member 객체에 할당된 권한 목록을 가져온다.
-        List<GrantedAuthority> grantedAuthorities = member.getAuthorities().stream()
-            // 각 권한 객체를 SimpleGrantedAuthority 객체로 변환한다.
-            // SimpleGrantedAuthority는 Spring Security에서 사용되는 GrantedAuthority의 구현체로, 권한의 이름을 나타낸다.
-            .map(authority -> new SimpleGrantedAuthority(authority.getAuthorityName()))
+        // member.authorityNames() 메서드를 호출하여 회원에게 할당된 권한 이름 목록을 가져온다.
+        List<GrantedAuthority> grantedAuthorities = member.authorityNames().stream()
+            // 각 권한 객체를 GrantedAuthority 객체로 변환한다.
+            // GrantedAuthorities는 같은 이름의 권한에 대해 공유되는 SimpleGrantedAuthority 인스턴스를 반환한다.
+            .map(GrantedAuthorities::of)
             // 변환된 권한을 리스트로 수집한다. 이 리스트는 User 객체에 전달되어 권한 정보를 제공한다.
             .collect(Collectors.toList());
 
         // 사용자 정보를 Spring Security에서 사용하는 형태로 변환한다.
-        // 사용자 이름, 비밀번호, 권한 리스트를 설정하고, User 객체를 생성하여 반환한다.
-        return new org.springframework.security.core.userdetails.User(member.getUsername(),
-            member.getPassword(),
-            grantedAuthorities);
+        // 사용자 이름, 비밀번호, 권한 리스트, 닉네임, 프로필 버전을 설정하고, MemberPrincipal 객체를 생성하여 반환한다.
+        return new MemberPrincipal(member.username(),
+            member.password(),
+            grantedAuthorities,
+            member.nickname(),
+            member.profileVersion());
     }
 }
 
-// 1. 활성화 상태 확인: 입력받은 Member 객체가 활성화되어 있는지 확인한다.
-// 2. 권한 변환: Member 객체의 권한을 스트림을 통해 SimpleGrantedAuthority 객체로 변환하고, 이 변환된 권한을 리스트로 수집한다.
+// 1. 활성화 상태 확인: 입력받은 회원 정보가 활성화되어 있는지 확인한다.
+// 2. 권한 변환: 회원의 권한을 스트림을 통해 SimpleGrantedAuthority 객체로 변환하고, 이 변환된 권한을 리스트로 수집한다.
 // 3. User 객체 생성: 변환된 권한 리스트와 사용자 이름, 비밀번호를 사용하여 Spring Security의 User 객체를 생성하고 반환한다.
 // 이 클래스는 UserDetailsService의 loadUserByUsername 메서드를 구현하여,
-// Member 객체를 Spring Security가 이해할 수 있는 UserDetails 객체로 변환하여 인증 과정에서 사용한다.
\ No newline at end of file
+// 회원 정보를 Spring Security가 이해할 수 있는 UserDetails 객체로 변환하여 인증 과정에서 사용한다.
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.exception.LoginOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// 비밀번호 검증(BCrypt)처럼 CPU를 많이 쓰는 로그인 작업을 전용 스레드 풀에서 실행한다.
+// 스레드 수와 대기열 크기가 제한되어 있으므로 로그인 요청이 몰려도 Tomcat 워커 스레드가 모두 BCrypt에 묶이지 않고,
+// JWT로 인증되는 다른 API는 영향을 받지 않는다. 대기열이 가득 차면 즉시 LoginOverloadedException을 던진다.
+// 대기열 길이, 대기 시간, 실행 시간, 거절 횟수는 login.executor.* 지표로 확인할 수 있다.
+// spring.threads.virtual.enabled가 true여도 이 풀은 플랫폼 스레드를 사용한다.
+// BCrypt는 블로킹이 아니라 CPU를 쓰는 작업이므로, 가상 스레드로 바꾸면 동시에 실행되는 해시 수만 늘어나 모든 로그인이 함께 느려진다.
+@Component
+public class LoginExecutor implements Executor, DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    public LoginExecutor(
+        @Value("${login.executor.pool-size:0}") int poolSize,
+        @Value("${login.executor.queue-capacity:100}") int queueCapacity,
+        @Value("${login.executor.retry-after-seconds:1}") long retryAfterSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        // pool-size가 0이면 CPU 코어 수만큼 스레드를 사용한다. BCrypt는 CPU 작업이므로 그 이상은 의미가 없다.
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("login.executor.wait")
+            .description("로그인 작업이 대기열에서 기다린 시간")
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("login.executor.execution")
+            .description("로그인 작업의 실행 시간")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("login.executor.rejected")
+            .description("대기열이 가득 차서 거절된 로그인 요청 수")
+            .register(meterRegistry);
+        Gauge.builder("login.executor.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("대기 중인 로그인 작업 수")
+            .register(meterRegistry);
+        Gauge.builder("login.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("실행 중인 로그인 작업 수")
+            .register(meterRegistry);
+    }
+
+    // 작업을 로그인 스레드 풀에 넣는다. 대기열이 가득 차 있으면 LoginOverloadedException을 던진다.
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this);
+        }
+        catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+    }
+
+    // Executor로 직접 사용할 때(예: 리액티브 모드의 Scheduler)는 대기열이 가득 차면 RejectedExecutionException을 던진다.
+    // 호출하는 쪽에서 overloaded()로 바꿔 503으로 응답하면 된다.
+    @Override
+    public void execute(Runnable command) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    command.run();
+                }
+                finally {
+                    executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    public LoginOverloadedException overloaded() {
+        return new LoginOverloadedException(retryAfterSeconds);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.exception.LoginRateLimitedException;
+import com.example.springboot_security_jwt.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// /api/authenticate 앞에서 로그인 시도 횟수를 제한한다.
+// 1. 같은 사용자 이름으로 로그인에 연속으로 실패하면 일정 시간 잠그고, 실패가 계속될수록 잠금 시간을 두 배씩 늘린다.
+// 2. 클라이언트 IP별, 사용자 이름별 토큰 버킷으로 초당 시도 횟수를 제한한다.
+// 검사는 메모리에서만 이루어지므로 거절된 요청은 BCrypt 계산이나 데이터베이스 조회를 하지 않는다.
+// 버킷과 잠금 정보는 크기가 제한된 Caffeine 캐시에 보관되고, 일정 시간 사용되지 않으면 자동으로 제거된다.
+@Component
+public class LoginRateLimiter {
+    private final boolean enabled;
+    private final int usernameCapacity;
+    private final long usernameRefillNanos;
+    private final int ipCapacity;
+    private final long ipRefillNanos;
+    private final int lockoutThreshold;
+    private final long lockoutInitialNanos;
+    private final long lockoutMaxNanos;
+
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, FailedAttempts> failedAttempts;
+
+    private final Counter lockedOutCounter;
+    private final Counter usernameLimitedCounter;
+    private final Counter ipLimitedCounter;
+
+    public LoginRateLimiter(
+        @Value("${login.rate-limit.enabled:true}") boolean enabled,
+        @Value("${login.rate-limit.username.capacity:5}") int usernameCapacity,
+        @Value("${login.rate-limit.username.refill-period:12s}") Duration usernameRefillPeriod,
+        @Value("${login.rate-limit.ip.capacity:20}") int ipCapacity,
+        @Value("${login.rate-limit.ip.refill-period:1s}") Duration ipRefillPeriod,
+        @Value("${login.rate-limit.max-keys:100000}") long maxKeys,
+        @Value("${login.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+        @Value("${login.rate-limit.lockout.threshold:5}") int lockoutThreshold,
+        @Value("${login.rate-limit.lockout.initial-duration:30s}") Duration lockoutInitialDuration,
+        @Value("${login.rate-limit.lockout.max-duration:15m}") Duration lockoutMaxDuration,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillNanos = usernameRefillPeriod.toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipRefillNanos = ipRefillPeriod.toNanos();
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutInitialNanos = lockoutInitialDuration.toNanos();
+        this.lockoutMaxNanos = lockoutMaxDuration.toNanos();
+
+        this.usernameBuckets = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(idleTimeout).build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(idleTimeout).build();
+        // 잠금이 끝나기 전에 항목이 사라지지 않도록 idle-timeout과 최대 잠금 시간 중 긴 쪽을 사용한다.
+        Duration failureRetention = idleTimeout.compareTo(lockoutMaxDuration) > 0 ? idleTimeout : lockoutMaxDuration;
+        this.failedAttempts = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(failureRetention).build();
+
+        this.lockedOutCounter = rejectedCounter(meterRegistry, "lockout");
+        this.usernameLimitedCounter = rejectedCounter(meterRegistry, "username");
+        this.ipLimitedCounter = rejectedCounter(meterRegistry, "ip");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("login.rate-limit.rejected")
+            .description("속도 제한이나 잠금으로 거절된 로그인 요청 수")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    // 로그인을 시도해도 되는지 확인한다. 허용되지 않으면 LoginRateLimitedException을 던진다.
+    // clientIp는 HttpServletRequest.getRemoteAddr() 값이다. 프록시 뒤에서 실행한다면
+    // server.forward-headers-strategy를 설정해 실제 클라이언트 IP가 전달되도록 해야 한다.
+    public void checkAllowed(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        FailedAttempts attempts = failedAttempts.getIfPresent(username);
+        if (attempts != null) {
+            long remaining = attempts.lockedUntil - now;
+            if (remaining > 0) {
+                lockedOutCounter.increment();
+                throw new LoginRateLimitedException(toRetryAfterSeconds(remaining));
+            }
+        }
+
+        long ipWait = bucket(ipBuckets, clientIp, ipCapacity, ipRefillNanos).tryConsume(now);
+        if (ipWait > 0) {
+            ipLimitedCounter.increment();
+            throw new LoginRateLimitedException(toRetryAfterSeconds(ipWait));
+        }
+
+        long usernameWait = bucket(usernameBuckets, username, usernameCapacity, usernameRefillNanos).tryConsume(now);
+        if (usernameWait > 0) {
+            usernameLimitedCounter.increment();
+            throw new LoginRateLimitedException(toRetryAfterSeconds(usernameWait));
+        }
+    }
+
+    // 이미 있는 버킷은 람다를 만들지 않고 바로 꺼내서, 대부분의 요청이 객체를 할당하지 않도록 한다.
+    private static TokenBucket bucket(Cache<String, TokenBucket> buckets, String key, int capacity, long refillNanos) {
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, k -> new TokenBucket(capacity, refillNanos, System.nanoTime()));
+        }
+        return bucket;
+    }
+
+    // 로그인에 성공하면 연속 실패 횟수를 초기화한다.
+    public void onSuccess(String username) {
+        if (enabled) {
+            failedAttempts.invalidate(username);
+        }
+    }
+
+    // 로그인에 실패할 때마다 호출한다. 연속 실패가 threshold에 도달하면 잠그고,
+    // 그 뒤로 실패할 때마다 잠금 시간을 두 배로 늘린다. (최대 lockout.max-duration)
+    public void onFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        FailedAttempts attempts = failedAttempts.get(username, key -> new FailedAttempts());
+        int failures = attempts.count.incrementAndGet();
+        if (failures >= lockoutThreshold) {
+            int doublings = Math.min(failures - lockoutThreshold, 30);
+            long lockoutNanos = lockoutInitialNanos << doublings;
+            if (lockoutNanos <= 0 || lockoutNanos > lockoutMaxNanos) {
+                lockoutNanos = lockoutMaxNanos;
+            }
+            attempts.lockedUntil = System.nanoTime() + lockoutNanos;
+        }
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // 사용자 이름별 연속 실패 횟수와 잠금이 풀리는 시각(nanoTime 기준)이다.
+    private static final class FailedAttempts {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long lockedUntil = System.nanoTime();
+    }
+}
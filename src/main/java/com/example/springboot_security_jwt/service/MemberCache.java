@@ -0,0 +1,105 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.repository.MemberRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// username으로 조회한 회원 정보(MemberSnapshot)를 일정 시간 동안 메모리에 보관한다.
+// 로그인(loadUserByUsername)과 /api/user 요청마다 member, user_authority, authority 조인 쿼리를 실행하지 않도록 한다.
+// 크기(member.cache.maximum-size)와 유효 시간(member.cache.time-to-live)으로 제한되며,
+// 회원 정보를 바꾸는 메서드는 반드시 evict()를 호출해야 한다.
+@Component
+public class MemberCache {
+    private final MemberRepository memberRepository;
+    private final Cache<String, MemberSnapshot> cache;
+    private final Timer cacheLookupTimer;
+    private final Timer databaseLookupTimer;
+    // evict()가 호출될 때마다 증가한다. 데이터베이스에서 읽는 동안 이 값이 바뀌었으면 읽은 값이 이미 오래된 것일 수 있다.
+    private final AtomicLong evictions = new AtomicLong();
+
+    public MemberCache(
+        MemberRepository memberRepository,
+        @Value("${member.cache.maximum-size:10000}") long maximumSize,
+        @Value("${member.cache.time-to-live:5m}") Duration timeToLive,
+        MeterRegistry meterRegistry
+    ) {
+        this.memberRepository = memberRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+        this.cacheLookupTimer = lookupTimer(meterRegistry, "cache");
+        this.databaseLookupTimer = lookupTimer(meterRegistry, "database");
+    }
+
+    // 회원 조회에 걸린 시간을 어디에서 찾았는지(source=cache|database)에 따라 나누어 기록한다.
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("member.lookup")
+            .description("username으로 회원 정보를 조회하는 데 걸린 시간")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    // 캐시에 있으면 바로 반환하고, 없으면 데이터베이스에서 읽어 캐시에 저장한다.
+    // 존재하지 않는 사용자는 캐시하지 않는다.
+    // cache.get(key, loader)는 ConcurrentHashMap의 잠금(synchronized)을 잡은 채로 loader를 실행하므로,
+    // 가상 스레드에서 그 안에서 JDBC 호출을 하면 캐리어 스레드가 고정(pinning)된다.
+    // 그래서 조회는 잠금 밖에서 하고, 읽기 시작할 때의 evictions 값과 저장할 때의 값이 같을 때만 저장한다.
+    // 읽는 동안 evict()가 호출되었다면 그 사이에 바뀐 값을 읽었을 수 있으므로 이번 결과는 캐시하지 않는다.
+    // 비교와 저장은 compute() 안에서 함께 하므로 invalidate()와 엇갈려 오래된 값이 남지 않는다.
+    // evictions는 모든 사용자에 공통이므로, 다른 사용자의 evict()와 겹친 조회도 이번만 캐시되지 않는다.
+    public Optional<MemberSnapshot> findByUsername(String username) {
+        long startedAt = System.nanoTime();
+        MemberSnapshot snapshot = cache.getIfPresent(username);
+        if (snapshot != null) {
+            cacheLookupTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return Optional.of(snapshot);
+        }
+        long evictionsBeforeLoad = evictions.get();
+        Optional<MemberSnapshot> loaded = memberRepository.findOneWithAuthoritiesByUsername(username)
+            .map(MemberSnapshot::from);
+        loaded.ifPresent(value -> cache.asMap().compute(username,
+            (key, current) -> evictions.get() == evictionsBeforeLoad ? value : current));
+        databaseLookupTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return loaded;
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋된 뒤에 한 번 더 지워서,
+    // 커밋 전에 다른 요청이 이전 값을 다시 캐시에 넣는 경우도 막는다.
+    // evictions를 먼저 증가시켜, 지금 데이터베이스에서 읽고 있는 조회가 결과를 캐시에 넣지 못하게 한다.
+    public void evict(String username) {
+        evictions.incrementAndGet();
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictions.incrementAndGet();
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Micrometer에 캐시 지표(hit, miss, eviction 등)를 등록할 때 사용한다.
+    public Cache<String, MemberSnapshot> getNativeCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.dto.MemberImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 많은 회원을 한 번에 가입시킨다. (테넌트 온보딩 등)
+// MemberService.signup()은 회원마다 존재 여부 조인 쿼리, BCrypt, IDENTITY insert를 차례로 실행하므로 수만 명을 넣기에는 느리다.
+// 이 서비스는 요청 본문을 한 줄씩 읽으면서 chunk-size개씩 모아 다음 순서로 처리한다.
+// 1. username 중복을 요청 안에서, 그리고 데이터베이스에 대해 IN 쿼리 한 번으로 확인한다.
+// 2. 비밀번호 해시를 전용 스레드 풀에서 CPU 코어 수만큼 병렬로 계산한다.
+// 3. member, user_authority 행을 JDBC batch insert로 넣고 chunk마다 트랜잭션을 커밋한다.
+// 잘못된 행은 건너뛰고 행 번호와 이유를 결과에 담는다. 본문 전체를 메모리에 올리지 않는다.
+@Service
+public class MemberImportService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(MemberImportService.class);
+    private static final String DEFAULT_AUTHORITY = "ROLE_USER";
+    // 결과에 담는 행 오류의 최대 개수이다. 나머지는 개수만 센다.
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String SELECT_EXISTING_USERNAMES =
+        "SELECT username FROM member WHERE username IN (:usernames)";
+    private static final String INSERT_MEMBER =
+        "INSERT INTO member (username, password, nickname, activated, profile_version) VALUES (?, ?, ?, TRUE, 0)";
+    // member_id는 IDENTITY로 만들어지므로, 생성된 키를 돌려받지 않고 username으로 찾아서 넣는다.
+    private static final String INSERT_AUTHORITY =
+        "INSERT INTO user_authority (member_id, authority_name) SELECT member_id, ? FROM member WHERE username = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long maxBufferedBodyBytes;
+    private final ExecutorService hashingExecutor;
+
+    public MemberImportService(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        PasswordEncoder passwordEncoder,
+        Validator validator,
+        ObjectMapper objectMapper,
+        @Value("${member.import.chunk-size:1000}") int chunkSize,
+        @Value("${member.import.hashing-threads:0}") int hashingThreads,
+        @Value("${member.import.max-buffered-body-size:64MB}") DataSize maxBufferedBodySize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxBufferedBodyBytes = maxBufferedBodySize.toBytes();
+
+        // hashing-threads가 0이면 CPU 코어 수만큼 사용한다. 로그인용 LoginExecutor와는 별도의 풀이다.
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 본문 형식이다. NDJSON은 한 줄에 MemberDto JSON 객체 하나, CSV는 첫 줄이 username,password,nickname 헤더이다.
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        public static Format of(MediaType contentType) {
+            return contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv")) ? CSV : NDJSON;
+        }
+    }
+
+    // 리액티브 모드는 요청 본문을 메모리에 모은 뒤 처리하므로 그 최대 크기이다.
+    public int getMaxBufferedBodyBytes() {
+        return (int) Math.min(maxBufferedBodyBytes, Integer.MAX_VALUE);
+    }
+
+    public MemberImportResult importMembers(InputStream body, Format format) throws IOException {
+        long startedAt = System.nanoTime();
+        Report report = new Report();
+        // 요청 안에서 같은 username이 다시 나오는지 확인한다.
+        Set<String> seenUsernames = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            LineParser parser = format == Format.CSV ? new CsvLineParser() : this::parseJson;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || parser.isHeader(lineNumber, line)) {
+                    continue;
+                }
+                report.total++;
+
+                MemberDto member;
+                try {
+                    member = parser.parse(line);
+                }
+                catch (IllegalArgumentException e) {
+                    report.fail(lineNumber, null, e.getMessage());
+                    continue;
+                }
+                String violation = validate(member);
+                if (violation != null) {
+                    report.fail(lineNumber, member.getUsername(), violation);
+                    continue;
+                }
+                if (!seenUsernames.add(member.getUsername())) {
+                    report.fail(lineNumber, member.getUsername(), "요청 안에서 중복된 username입니다.");
+                    continue;
+                }
+
+                chunk.add(new Row(lineNumber, member));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        MemberImportResult result = report.toResult(elapsedNanos);
+        logger.info("회원 {}명을 가입시켰습니다. (전체 {}행, 실패 {}행, {}ms, {}행/초)", result.getImported(),
+            result.getTotal(), result.getFailed(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, Report report) {
+        // 1. 이미 가입된 username을 쿼리 한 번으로 찾아서 제외한다. BCrypt를 계산하기 전에 걸러낸다.
+        List<String> usernames = chunk.stream().map(row -> row.member().getUsername()).toList();
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_USERNAMES,
+            Map.of("usernames", usernames), String.class));
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.member().getUsername())) {
+                report.fail(row.lineNumber(), row.member().getUsername(), "이미 가입되어 있는 유저입니다.");
+            }
+            else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 2. 비밀번호 해시를 병렬로 계산한다. 해시에 실패한 행은 그 행만 실패로 기록하고 나머지는 계속 넣는다.
+        List<CompletableFuture<String>> hashes = rows.stream()
+            .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.member().getPassword()), hashingExecutor))
+            .toList();
+        List<Row> hashedRows = new ArrayList<>(rows.size());
+        List<Object[]> memberArgs = new ArrayList<>(rows.size());
+        List<Object[]> authorityArgs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            String hash;
+            try {
+                hash = hashes.get(i).join();
+            }
+            catch (CompletionException | CancellationException e) {
+                logger.warn("{}행의 비밀번호를 암호화하지 못했습니다.", row.lineNumber(), e);
+                report.fail(row.lineNumber(), row.member().getUsername(), "비밀번호를 암호화하지 못했습니다.");
+                continue;
+            }
+            hashedRows.add(row);
+            memberArgs.add(new Object[]{row.member().getUsername(), hash, row.member().getNickname()});
+            authorityArgs.add(new Object[]{DEFAULT_AUTHORITY, row.member().getUsername()});
+        }
+        if (hashedRows.isEmpty()) {
+            return;
+        }
+
+        // 3. chunk 전체를 batch insert로 넣고 한 번에 커밋한다.
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(memberArgs, authorityArgs));
+            report.imported += hashedRows.size();
+        }
+        catch (DataIntegrityViolationException e) {
+            // 확인한 뒤에 다른 요청이 같은 username으로 가입했거나, 다른 제약 조건을 위반한 행이 있는 경우이다.
+            // 이 chunk만 한 행씩 다시 넣어 실패한 행을 찾는다.
+            for (int i = 0; i < hashedRows.size(); i++) {
+                Row row = hashedRows.get(i);
+                List<Object[]> memberRow = List.<Object[]>of(memberArgs.get(i));
+                List<Object[]> authorityRow = List.<Object[]>of(authorityArgs.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(memberRow, authorityRow));
+                    report.imported++;
+                }
+                catch (DataIntegrityViolationException rowException) {
+                    if (MemberService.isUsernameConstraintViolation(rowException)) {
+                        report.fail(row.lineNumber(), row.member().getUsername(), "이미 가입되어 있는 유저입니다.");
+                    }
+                    else {
+                        logger.warn("{}행을 저장하지 못했습니다.", row.lineNumber(), rowException);
+                        report.fail(row.lineNumber(), row.member().getUsername(), "데이터베이스 제약 조건을 위반했습니다.");
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(List<Object[]> memberArgs, List<Object[]> authorityArgs) {
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.batchUpdate(INSERT_MEMBER, memberArgs);
+        jdbc.batchUpdate(INSERT_AUTHORITY, authorityArgs);
+    }
+
+    // MemberDto의 Bean Validation 제약(@NotNull, @Size)을 확인하고, 위반이 있으면 첫 번째 위반 내용을 반환한다.
+    private String validate(MemberDto member) {
+        Set<ConstraintViolation<MemberDto>> violations = validator.validate(member);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<MemberDto> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private MemberDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, MemberDto.class);
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON 형식이 올바르지 않습니다: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+        try {
+            hashingExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface LineParser {
+        MemberDto parse(String line);
+
+        default boolean isHeader(int lineNumber, String line) {
+            return false;
+        }
+    }
+
+    // 첫 줄의 헤더로 열 순서를 정한다. 따옴표로 감싼 값(쉼표를 포함한 값)은 지원하지 않는다.
+    // 헤더가 올바르지 않으면 모든 행이 같은 이유로 실패한다.
+    private static final class CsvLineParser implements LineParser {
+        private String headerError;
+        private int usernameIndex = -1;
+        private int passwordIndex = -1;
+        private int nicknameIndex = -1;
+        private int columns;
+
+        @Override
+        public boolean isHeader(int lineNumber, String line) {
+            if (lineNumber != 1) {
+                return false;
+            }
+            String[] header = line.split(",", -1);
+            columns = header.length;
+            for (int i = 0; i < header.length; i++) {
+                switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                    case "username" -> usernameIndex = i;
+                    case "password" -> passwordIndex = i;
+                    case "nickname" -> nicknameIndex = i;
+                    default -> { }
+                }
+            }
+            if (usernameIndex < 0 || passwordIndex < 0 || nicknameIndex < 0) {
+                headerError = "CSV 첫 줄은 username,password,nickname 헤더여야 합니다.";
+            }
+            return true;
+        }
+
+        @Override
+        public MemberDto parse(String line) {
+            if (headerError != null) {
+                throw new IllegalArgumentException(headerError);
+            }
+            String[] values = line.split(",", -1);
+            if (values.length != columns) {
+                throw new IllegalArgumentException("열 개수가 헤더와 다릅니다. (" + values.length + "/" + columns + ")");
+            }
+            return MemberDto.builder()
+                .username(values[usernameIndex])
+                .password(values[passwordIndex])
+                .nickname(values[nicknameIndex])
+                .build();
+        }
+    }
+
+    private record Row(int lineNumber, MemberDto member) {
+    }
+
+    private static final class Report {
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<MemberImportResult.RowError> errors = new ArrayList<>();
+
+        void fail(int lineNumber, String username, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new MemberImportResult.RowError(lineNumber, username, message));
+            }
+        }
+
+        MemberImportResult toResult(long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            return MemberImportResult.builder()
+                .total(total)
+                .imported(imported)
+                .failed(failed)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(seconds > 0 ? imported / seconds : 0)
+                .errors(errors)
+                .errorsTruncated(failed > errors.size())
+                .build();
+        }
+    }
+}
@@ -1,64 +1,202 @@
 package com.example.springboot_security_jwt.service;
 
 import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.dto.MemberPageDto;
 import com.example.springboot_security_jwt.entity.Authority;
 import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.exception.DuplicateMemberException;
+import com.example.springboot_security_jwt.jwt.JwtAuthenticationToken;
+import com.example.springboot_security_jwt.jwt.ProfileVersionRegistry;
+import com.example.springboot_security_jwt.repository.MemberListRepository;
 import com.example.springboot_security_jwt.repository.MemberRepository;
 import com.example.springboot_security_jwt.util.SecurityUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Locale;
 
 @Service
 @AllArgsConstructor
 public class MemberService {
+    // 회원 목록 한 페이지의 최대 크기와, 내보내기에서 한 번에 읽는 회원 수이다.
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int EXPORT_CHUNK_SIZE = 500;
+    // 가입한 회원에게 부여하는 권한이다. user_authority에는 authority_name(키)만 저장되므로
+    // 가입할 때마다 새로 만들지 않고 같은 인스턴스를 재사용한다. (연관 관계에 cascade가 없어 이 객체는 변경되지 않는다)
+    private static final Authority ROLE_USER = Authority.builder().authorityName("ROLE_USER").build();
+
     private final MemberRepository memberRepository;
+    private final MemberListRepository memberListRepository;
+    private final ObjectMapper objectMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final MemberCache memberCache;
+    private final ProfileVersionRegistry profileVersionRegistry;
 
     // 이 메서드가 트랜잭션으로 처리된다. 즉, 데이터베이스 작업이 성공적으로 완료되지 않으면 모든 변경 사항이 롤백된다.
+    // username 중복은 member.username의 유니크 제약 조건으로 판단한다.
+    // 미리 조회만 하고 insert하면 동시에 가입한 두 요청이 모두 확인을 통과하고 한쪽이 처리되지 않은 예외로 실패하므로,
+    // saveAndFlush()로 이 메서드 안에서 insert를 실행하고 제약 조건 위반을 DuplicateMemberException(409)으로 바꾼다.
     @Transactional
     public MemberDto signup(MemberDto memberDto) {
-        // memberRepository를 사용해 username을 기준으로 기존 사용자 정보를 조회한다.
-        // 사용자가 이미 존재하면 예외를 발생시켜 가입을 중단한다.
-        if (memberRepository.findOneWithAuthoritiesByUsername(memberDto.getUsername()).orElse(null) != null) {
-            throw new RuntimeException("이미 가입되어 있는 유저입니다.");
+        // BCrypt 계산 전에 이미 있는 username을 걸러낸다. 권한을 조인하지 않고 유니크 인덱스만 확인한다.
+        // 이 확인을 통과해도 동시에 가입한 요청이 있으면 아래 제약 조건에서 걸러진다.
+        if (memberRepository.existsByUsername(memberDto.getUsername())) {
+            throw new DuplicateMemberException("이미 가입되어 있는 유저입니다.");
         }
 
-        // 사용자의 권한을 나타내는 객체이다. ROLE_USER 권한을 부여한다.
-        Authority authority = Authority.builder()
-            .authorityName("ROLE_USER")
-            .build();
-
         Member member = Member.builder()
             .username(memberDto.getUsername())
             .password(passwordEncoder.encode(memberDto.getPassword()))
             .nickname(memberDto.getNickname())
+            // 가입한 사용자가 바로 로그인할 수 있도록 활성화한다. (CustomUserDetailsService는 비활성 사용자의 로그인을 거부한다)
+            .activated(true)
             // 권한을 Set으로 설정하는데, 이 경우 단일 권한 ROLE_USER만 설정된다.
             // Collections.singleton(T element) 메서드는 인자로 전달된 객체 element를 포함하는 불변의 Set을 반환한다.
             // Set은 크기가 1이며, 오직 하나의 요소만을 포함한다.
-            .authorities(Collections.singleton(authority))
+            .authorities(Collections.singleton(ROLE_USER))
             .build();
 
-        return MemberDto.from(memberRepository.save(member));
+        try {
+            member = memberRepository.saveAndFlush(member);
+        }
+        catch (DataIntegrityViolationException e) {
+            if (isUsernameConstraintViolation(e)) {
+                throw new DuplicateMemberException("이미 가입되어 있는 유저입니다.");
+            }
+            throw e;
+        }
+
+        // 존재하지 않는 사용자는 캐시되지 않지만, 혹시 남아 있을 수 있는 항목을 확실히 지운다.
+        memberCache.evict(member.getUsername());
+        return MemberDto.from(member);
+    }
+
+    // 위반된 제약 조건이 member.username의 유니크 제약 조건인지 확인한다.
+    // JPA로 저장한 경우는 Hibernate가 찾아 둔 제약 조건 이름으로, JDBC로 직접 넣은 경우(MemberImportService)는
+    // 드라이버의 SQLException 메시지에 담긴 제약 조건 이름으로 판단한다.
+    static boolean isUsernameConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraintName = violation.getConstraintName();
+                return constraintName != null
+                    && constraintName.toLowerCase(Locale.ROOT).contains(Member.USERNAME_CONSTRAINT);
+            }
+            if (cause instanceof SQLException sqlException) {
+                String message = sqlException.getMessage();
+                return message != null && message.toLowerCase(Locale.ROOT).contains(Member.USERNAME_CONSTRAINT);
+            }
+        }
+        return false;
     }
 
-    // 읽기 전용 트랜잭션으로 동작하여, 데이터베이스의 상태를 변경하지 않음을 보장한다. 성능 최적화 효과도 있다.
-    @Transactional(readOnly = true)
     // username에 해당하는 사용자의 정보를 조회한다.
+    // MemberCache에 있으면 트랜잭션이나 쿼리 없이 바로 반환하고, 없으면 읽기 전용 쿼리로 읽어 캐시에 저장한다.
     public MemberDto getUserWithAuthorities(String username) {
-        return MemberDto.from(memberRepository.findOneWithAuthoritiesByUsername(username).orElse(null));
+        return MemberDto.from(memberCache.findByUsername(username).orElse(null));
     }
 
-    @Transactional(readOnly = true)
     // 현재 인증된 사용자의 이름을 가져온다. 현재 로그인된 사용자에 해당한다.
+    // 토큰에 담긴 프로필이 최신이면 트랜잭션이나 쿼리 없이 토큰의 claims로 바로 응답한다.
     public MemberDto getMyUserWithAuthorities() {
+        MemberDto fromToken = getUserFromToken(SecurityContextHolder.getContext().getAuthentication());
+        if (fromToken != null) {
+            return fromToken;
+        }
         return MemberDto.from(
             SecurityUtil.getCurrentUsername()
-                .flatMap(memberRepository::findOneWithAuthoritiesByUsername)
+                .flatMap(memberCache::findByUsername)
                 .orElseThrow(() -> new RuntimeException("Member not found"))
         );
     }
+
+    // 검증된 토큰의 claims(닉네임, 권한)가 최신이면 그것으로 MemberDto를 만든다.
+    // 프로필 claims가 없는 예전 토큰이거나, 토큰이 발급된 뒤 프로필이 바뀌었으면 null을 반환하므로 데이터베이스에서 조회해야 한다.
+    public MemberDto getUserFromToken(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication
+            && profileVersionRegistry.isCurrent(jwtAuthentication)) {
+            return MemberDto.from(jwtAuthentication);
+        }
+        return null;
+    }
+
+    // 닉네임을 바꾸고 프로필 버전을 올린다.
+    // 이미 발급된 토큰에는 이전 닉네임이 담겨 있으므로, ProfileVersionRegistry에 새 버전을 기록해서
+    // 그 토큰으로 들어온 /api/user 요청은 토큰 대신 데이터베이스에서 조회하게 한다. (refresh로 새 토큰을 받으면 다시 토큰으로 응답한다)
+    @Transactional
+    public MemberDto updateNickname(String username, String nickname) {
+        Member member = memberRepository.findOneWithAuthoritiesByUsername(username)
+            .orElseThrow(() -> new RuntimeException("Member not found"));
+        Instant now = Instant.now();
+        member.setNickname(nickname);
+        member.setProfileVersion(member.getProfileVersion() + 1);
+        member.setProfileUpdatedAt(now);
+        memberCache.evict(username);
+
+        profileVersionRegistry.changed(username, member.getProfileVersion(), now.toEpochMilli());
+        return MemberDto.from(member);
+    }
+
+    // 시작 시 최근(액세스 토큰 유효 시간 이내)에 프로필이 바뀐 회원으로 ProfileVersionRegistry를 다시 만든다.
+    // 그보다 먼저 바뀐 프로필의 이전 버전 토큰은 이미 모두 만료되었다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildProfileVersions() {
+        Instant since = Instant.ofEpochMilli(profileVersionRegistry.retentionStartMillis(System.currentTimeMillis()));
+        for (Member member : memberRepository.findByProfileUpdatedAtAfter(since)) {
+            profileVersionRegistry.changed(member.getUsername(), member.getProfileVersion(),
+                member.getProfileUpdatedAt().toEpochMilli());
+        }
+    }
+
+    // 회원 목록을 member_id 순서로 한 페이지 읽는다. after는 이전 페이지의 nextCursor이다. (첫 페이지는 null)
+    public MemberPageDto getMembers(Long after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return memberListRepository.findAfter(after != null ? after : 0L, limit);
+    }
+
+    // 모든 회원을 NDJSON(한 줄에 MemberDto 하나)으로 outputStream에 쓴다.
+    // EXPORT_CHUNK_SIZE명씩 읽고 쓰고 flush하므로, 회원 수와 관계없이 메모리에는 한 chunk만 올라간다.
+    public void exportMembers(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MemberDto.class);
+        Long after = null;
+        do {
+            MemberPageDto page = getMembers(after, EXPORT_CHUNK_SIZE);
+            for (MemberDto member : page.getMembers()) {
+                outputStream.write(writer.writeValueAsBytes(member));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+            after = page.getNextCursor();
+        } while (after != null);
+    }
+
+    // 사용자를 비활성화하고, 이미 발급된 액세스 토큰과 refresh token을 모두 폐기한다.
+    // 토큰이 만료될 때까지 기다리지 않고 다음 요청부터 바로 거부된다.
+    @Transactional
+    public void deactivate(String username) {
+        Member member = memberRepository.findOneWithAuthoritiesByUsername(username)
+            .orElseThrow(() -> new RuntimeException("Member not found"));
+        member.setActivated(false);
+        memberCache.evict(username);
+
+        tokenRevocationService.revokeUser(username);
+        refreshTokenService.revokeAll(username);
+    }
 }
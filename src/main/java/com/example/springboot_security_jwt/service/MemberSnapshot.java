@@ -0,0 +1,30 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.entity.Authority;
+import com.example.springboot_security_jwt.entity.Member;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// MemberCache에 저장되는 회원 정보의 불변 스냅샷이다.
+// JPA 엔티티와 달리 영속성 컨텍스트와 무관하므로 여러 스레드와 트랜잭션에서 안전하게 공유할 수 있다.
+public record MemberSnapshot(
+    String username,
+    String password,
+    String nickname,
+    boolean activated,
+    long profileVersion,
+    Set<String> authorityNames
+) {
+    public static MemberSnapshot from(Member member) {
+        return new MemberSnapshot(
+            member.getUsername(),
+            member.getPassword(),
+            member.getNickname(),
+            member.isActivated(),
+            member.getProfileVersion(),
+            member.getAuthorities().stream()
+                .map(Authority::getAuthorityName)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
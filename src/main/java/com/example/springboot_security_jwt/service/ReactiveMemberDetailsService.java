@@ -0,0 +1,41 @@
+package com.example.springboot_security_jwt.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// 리액티브 모드에서 사용하는 ReactiveUserDetailsService이다.
+// 회원 저장소는 JPA(블로킹)이므로 CustomUserDetailsService를 그대로 사용하되,
+// 이벤트 루프가 멈추지 않도록 조회와 비밀번호 해시 교체를 boundedElastic 스케줄러에서 실행한다.
+// 회원 캐시(MemberCache)에 있는 사용자는 데이터베이스를 거치지 않는다.
+@Component
+@Profile("reactive")
+@AllArgsConstructor
+public class ReactiveMemberDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+    private final CustomUserDetailsService customUserDetailsService;
+
+    // 사용자가 없으면 빈 Mono를 반환한다. 인증 매니저는 이를 BadCredentialsException으로 처리한다.
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromCallable(() -> customUserDetailsService.loadUserByUsername(username))
+            .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty())
+            // 비활성화된 사용자처럼 조회 중 발생한 다른 예외는 DaoAuthenticationProvider와 같이 인증 실패로 바꾼다.
+            .onErrorMap(e -> !(e instanceof InternalAuthenticationServiceException),
+                e -> new InternalAuthenticationServiceException(e.getMessage(), e))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // 로그인에 성공한 사용자의 해시가 현재 설정보다 약하면 새 해시로 교체한다. (CustomUserDetailsService.updatePassword 참고)
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return Mono.fromCallable(() -> customUserDetailsService.updatePassword(user, newPassword))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
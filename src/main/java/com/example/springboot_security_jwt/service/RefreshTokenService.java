@@ -0,0 +1,150 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.TokenDto;
+import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.entity.RefreshToken;
+import com.example.springboot_security_jwt.exception.InvalidRefreshTokenException;
+import com.example.springboot_security_jwt.jwt.GrantedAuthorities;
+import com.example.springboot_security_jwt.jwt.MemberPrincipal;
+import com.example.springboot_security_jwt.jwt.TokenFormat;
+import com.example.springboot_security_jwt.jwt.TokenProvider;
+import com.example.springboot_security_jwt.repository.MemberRepository;
+import com.example.springboot_security_jwt.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// 불투명(opaque) refresh token을 발급하고 회전(rotation)시킨다.
+// 토큰 원문은 클라이언트에만 있고 데이터베이스에는 SHA-256 해시만 저장된다.
+// 새 액세스 토큰 발급에는 PasswordEncoder가 전혀 사용되지 않으므로 로그인 상태를 유지하는 비용이 BCrypt 비용과 무관하다.
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MemberRepository memberRepository;
+    private final TokenProvider tokenProvider;
+    private final long refreshTokenValidityInSeconds;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        MemberRepository memberRepository,
+        TokenProvider tokenProvider,
+        @Value("${jwt.refresh-token-validity-in-seconds}") long refreshTokenValidityInSeconds
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.memberRepository = memberRepository;
+        this.tokenProvider = tokenProvider;
+        this.refreshTokenValidityInSeconds = refreshTokenValidityInSeconds;
+    }
+
+    // 로그인에 성공한 사용자에게 새 refresh token family의 첫 토큰을 발급한다.
+    @Transactional
+    public String issue(String username) {
+        Member member = memberRepository.findOneWithAuthoritiesByUsername(username)
+            .orElseThrow(() -> new RuntimeException("Member not found"));
+        return issue(member, UUID.randomUUID().toString());
+    }
+
+    // refresh token을 검증하고, 새 액세스 토큰과 새 refresh token을 발급한다. 사용된 토큰은 다시 쓸 수 없다.
+    // 새 액세스 토큰은 tokenFormat 형식으로 발급한다. (null이면 JWT)
+    // 이미 교체된 토큰이 다시 들어오면 탈취된 것으로 보고 같은 family의 토큰을 모두 폐기한다.
+    // 폐기 결과가 롤백되지 않도록 InvalidRefreshTokenException에서는 롤백하지 않는다.
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenDto rotate(String rawRefreshToken, TokenFormat tokenFormat) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+            .orElseThrow(() -> new InvalidRefreshTokenException("존재하지 않는 refresh token입니다."));
+
+        if (refreshToken.isUsed() || refreshToken.isRevoked()) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            logger.warn("재사용된 refresh token이 감지되어 family {} 를 폐기했습니다.", refreshToken.getFamilyId());
+            throw new InvalidRefreshTokenException("이미 사용되었거나 폐기된 refresh token입니다.");
+        }
+        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("만료된 refresh token입니다.");
+        }
+
+        Member member = refreshToken.getMember();
+        if (!member.isActivated()) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            throw new InvalidRefreshTokenException(member.getUsername() + " -> 활성화되어 있지 않습니다.");
+        }
+
+        // 메모리에서 확인한 used 값만으로는 같은 토큰의 동시 요청이 모두 통과할 수 있으므로,
+        // 조건부 update로 한 요청만 토큰을 사용하게 한다. 0건이면 다른 요청이 먼저 사용한 것이므로 재사용으로 본다.
+        if (refreshTokenRepository.markUsed(refreshToken.getRefreshTokenId()) == 0) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            logger.warn("동시에 재사용된 refresh token이 감지되어 family {} 를 폐기했습니다.", refreshToken.getFamilyId());
+            throw new InvalidRefreshTokenException("이미 사용되었거나 폐기된 refresh token입니다.");
+        }
+
+        List<GrantedAuthority> authorities = member.getAuthorities().stream()
+            .map(authority -> GrantedAuthorities.of(authority.getAuthorityName()))
+            .toList();
+        // 새 토큰에 현재 닉네임과 프로필 버전이 담기도록 MemberPrincipal을 principal로 사용한다.
+        // 토큰 발급에는 비밀번호가 필요 없으므로 비워 둔다.
+        MemberPrincipal principal = new MemberPrincipal(member.getUsername(), "", authorities,
+            member.getNickname(), member.getProfileVersion());
+        String accessToken = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken(principal, null, authorities), tokenFormat);
+
+        return new TokenDto(accessToken, issue(member, refreshToken.getFamilyId()));
+    }
+
+    // 사용자의 모든 refresh token을 폐기한다. (로그아웃, 계정 비활성화 등)
+    @Transactional
+    public void revokeAll(String username) {
+        refreshTokenRepository.revokeAllByUsername(username);
+    }
+
+    // 만료된 refresh token을 주기적으로 삭제한다.
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.debug("만료된 refresh token {}개를 삭제했습니다.", deleted);
+        }
+    }
+
+    private String issue(Member member, String familyId) {
+        byte[] randomBytes = new byte[32];
+        secureRandom.nextBytes(randomBytes);
+        String rawRefreshToken = BASE64_URL.encodeToString(randomBytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+            .tokenHash(hash(rawRefreshToken))
+            .member(member)
+            .familyId(familyId)
+            .expiresAt(Instant.now().plusSeconds(refreshTokenValidityInSeconds))
+            .build());
+        return rawRefreshToken;
+    }
+
+    private static String hash(String rawRefreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawRefreshToken.getBytes(StandardCharsets.US_ASCII)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.entity.RevokedToken;
+import com.example.springboot_security_jwt.jwt.TokenDenylist;
+import com.example.springboot_security_jwt.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+// 토큰 폐기를 데이터베이스에 기록하고 메모리의 TokenDenylist에 반영한다.
+// 요청마다 수행되는 폐기 여부 확인은 TokenDenylist만 사용하므로 데이터베이스에 접근하지 않는다.
+// 애플리케이션이 시작되면 데이터베이스의 기록으로 TokenDenylist를 다시 만들고, 만료된 기록은 주기적으로 지운다.
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final long tokenValidityInMilliseconds;
+
+    public TokenRevocationService(
+        RevokedTokenRepository revokedTokenRepository,
+        TokenDenylist tokenDenylist,
+        @Value("${jwt.token-validity-in-seconds}") long tokenValidityInSeconds
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenValidityInMilliseconds = tokenValidityInSeconds * 1000;
+    }
+
+    // 토큰 하나를 폐기한다. 기록은 토큰이 만료되는 시각에 자동으로 제거된다.
+    @Transactional
+    public void revokeToken(String tokenId, String username, long expiresAtMillis) {
+        revokedTokenRepository.save(RevokedToken.builder()
+            .jti(tokenId)
+            .username(username)
+            .revokedAt(Instant.now())
+            .expiresAt(Instant.ofEpochMilli(expiresAtMillis))
+            .build());
+        tokenDenylist.revokeToken(tokenId, expiresAtMillis);
+    }
+
+    // 지금까지 사용자에게 발급된 모든 액세스 토큰을 폐기한다.
+    // 가장 늦게 발급된 토큰도 액세스 토큰 유효 시간이 지나면 만료되므로 그때 기록이 제거된다.
+    @Transactional
+    public void revokeUser(String username) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(tokenValidityInMilliseconds);
+        revokedTokenRepository.save(RevokedToken.builder()
+            .username(username)
+            .revokedAt(now)
+            .expiresAt(expiresAt)
+            .build());
+        tokenDenylist.revokeUser(username, now.toEpochMilli(), expiresAt.toEpochMilli());
+    }
+
+    // 시작 시 데이터베이스에 남아 있는 폐기 기록으로 메모리의 폐기 목록을 다시 만든다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findByExpiresAtAfter(Instant.now());
+        for (RevokedToken revokedToken : revokedTokens) {
+            if (revokedToken.getJti() != null) {
+                tokenDenylist.revokeToken(revokedToken.getJti(), revokedToken.getExpiresAt().toEpochMilli());
+            }
+            else {
+                tokenDenylist.revokeUser(revokedToken.getUsername(),
+                    revokedToken.getRevokedAt().toEpochMilli(), revokedToken.getExpiresAt().toEpochMilli());
+            }
+        }
+        logger.info("폐기된 토큰 {}개로 폐기 목록을 만들었습니다.", revokedTokens.size());
+    }
+
+    // 만료된 폐기 기록을 지우고 Bloom filter를 다시 만든다.
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        tokenDenylist.purgeExpired(now.toEpochMilli());
+    }
+}
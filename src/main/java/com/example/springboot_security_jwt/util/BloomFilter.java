@@ -0,0 +1,62 @@
+package com.example.springboot_security_jwt.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 잠금 없이 동작하는 간단한 Bloom filter이다.
+// mightContain()이 false를 반환하면 절대 추가된 적이 없는 값이고, true를 반환하면 추가되었을 수도 있는 값이다.
+// 비트는 AtomicLongArray에 저장되고 put()은 CAS로 비트를 켜므로 여러 스레드가 동시에 사용할 수 있다.
+// 값을 지울 수는 없으므로, 지워야 하는 값이 생기면 새 필터를 만들어 교체해야 한다.
+public final class BloomFilter {
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    // expectedInsertions개를 넣었을 때 오탐률이 falsePositiveRate 정도가 되도록 크기를 정한다.
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    public void put(String value) {
+        int h1 = value.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1 + i * h2);
+            long mask = 1L << index;
+            int slot = index >>> 6;
+            long current = bits.get(slot);
+            while ((current & mask) == 0 && !bits.weakCompareAndSetVolatile(slot, current, current | mask)) {
+                current = bits.get(slot);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        int h1 = value.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1 + i * h2);
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int hash) {
+        return (hash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // 두 번째 해시는 murmur3의 finalizer로 만든다. (double hashing)
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
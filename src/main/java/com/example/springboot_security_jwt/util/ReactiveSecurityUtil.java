@@ -0,0 +1,38 @@
+package com.example.springboot_security_jwt.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+public class ReactiveSecurityUtil {
+
+    private ReactiveSecurityUtil() {}
+
+    // SecurityUtil.getCurrentUsername()의 리액티브 버전이다.
+    // WebFlux에서는 요청이 여러 스레드를 옮겨 다니므로 ThreadLocal인 SecurityContextHolder를 사용할 수 없고,
+    // 인증 정보는 Reactor Context(ReactiveSecurityContextHolder)에 담겨 전달된다.
+    // 인증 정보가 없으면 빈 Mono를 반환한다.
+    public static Mono<String> getCurrentUsername() {
+        return ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .flatMap(ReactiveSecurityUtil::getUsername);
+    }
+
+    // 현재 요청의 Authentication을 반환한다. 인증 정보가 없으면 빈 Mono를 반환한다.
+    public static Mono<Authentication> getCurrentAuthentication() {
+        return ReactiveSecurityContextHolder.getContext()
+            .mapNotNull(SecurityContext::getAuthentication);
+    }
+
+    private static Mono<String> getUsername(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserDetails springSecurityUser) {
+            return Mono.just(springSecurityUser.getUsername());
+        }
+        if (authentication.getPrincipal() instanceof String username) {
+            return Mono.just(username);
+        }
+        return Mono.empty();
+    }
+}
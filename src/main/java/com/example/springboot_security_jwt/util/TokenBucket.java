@@ -0,0 +1,40 @@
+package com.example.springboot_security_jwt.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 잠금 없이 동작하는 토큰 버킷이다.
+// 최대 capacity개의 토큰을 담을 수 있고, refillIntervalNanos마다 토큰이 하나씩 다시 채워진다.
+// 토큰 수를 직접 저장하는 대신 "버킷이 가득 차는 시각"(nanoTime 기준) 하나만 AtomicLong에 저장하므로
+// 토큰 사용은 CAS 한 번으로 끝나고, 채우기를 위한 타이머나 별도의 갱신 작업이 필요 없다.
+public final class TokenBucket {
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    // 이 시각이 되면 버킷이 가득 찬다. 현재 시각보다 과거이면 이미 가득 찬 상태이다.
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+        if (capacity < 1 || refillIntervalNanos < 1) {
+            throw new IllegalArgumentException("capacity와 refillIntervalNanos는 1 이상이어야 합니다.");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstNanos = capacity * refillIntervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // 토큰 하나를 사용한다. 성공하면 0을, 토큰이 없으면 다음 토큰이 채워질 때까지 남은 시간(나노초)을 반환한다.
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // 가득 찬 시각이 지났으면 지금부터 계산한다.
+            long base = current - nowNanos < 0 ? nowNanos : current;
+            long next = base + refillIntervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+-- 엔티티(entity 패키지)와 같은 스키마이다. 엔티티를 바꾸면 새 버전의 스크립트를 추가한다.
+
+CREATE TABLE authority (
+    authority_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (authority_name)
+);
+
+-- uk_member_username은 가입 시 중복 확인(MemberService.signup)과 로그인, /api/user 조회의 username 인덱스로 사용된다.
+CREATE TABLE member (
+    member_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(50),
+    password VARCHAR(255),
+    nickname VARCHAR(50),
+    activated BOOLEAN,
+    profile_version BIGINT DEFAULT 0 NOT NULL,
+    profile_updated_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (member_id),
+    CONSTRAINT uk_member_username UNIQUE (username)
+);
+
+CREATE INDEX idx_member_profile_updated_at ON member (profile_updated_at);
+
+CREATE TABLE user_authority (
+    member_id BIGINT NOT NULL,
+    authority_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (member_id, authority_name),
+    CONSTRAINT fk_user_authority_member FOREIGN KEY (member_id) REFERENCES member (member_id),
+    CONSTRAINT fk_user_authority_authority FOREIGN KEY (authority_name) REFERENCES authority (authority_name)
+);
+
+CREATE INDEX idx_user_authority_member ON user_authority (member_id);
+
+CREATE TABLE refresh_token (
+    refresh_token_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    member_id BIGINT NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used BOOLEAN,
+    revoked BOOLEAN,
+    PRIMARY KEY (refresh_token_id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_token_member FOREIGN KEY (member_id) REFERENCES member (member_id)
+);
+
+CREATE INDEX idx_refresh_token_member ON refresh_token (member_id);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+
+CREATE TABLE revoked_token (
+    revoked_token_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    jti VARCHAR(36),
+    username VARCHAR(50),
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (revoked_token_id),
+    CONSTRAINT uk_revoked_token_jti UNIQUE (jti)
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token (expires_at);
\ No newline at end of file
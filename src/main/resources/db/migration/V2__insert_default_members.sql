@@ -0,0 +1,9 @@
+-- import.sql과 같은 초기 데이터이다. (admin / admin)
+
+INSERT INTO authority (authority_name) VALUES ('ROLE_USER');
+INSERT INTO authority (authority_name) VALUES ('ROLE_ADMIN');
+
+INSERT INTO member (username, password, nickname, activated) VALUES ('admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', TRUE);
+
+INSERT INTO user_authority (member_id, authority_name) SELECT member_id, 'ROLE_USER' FROM member WHERE username = 'admin';
+INSERT INTO user_authority (member_id, authority_name) SELECT member_id, 'ROLE_ADMIN' FROM member WHERE username = 'admin';
\ No newline at end of file
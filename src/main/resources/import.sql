@@ -1,7 +1,7 @@
-INSERT INTO MEMBER (MEMBER_ID, USERNAME, PASSWORD, NICKNAME, ACTIVATED) VALUES (1, 'admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', 1);
+INSERT INTO MEMBER (USERNAME, PASSWORD, NICKNAME, ACTIVATED) VALUES ('admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', 1);
 
 INSERT INTO AUTHORITY (AUTHORITY_NAME) values ('ROLE_USER');
 INSERT INTO AUTHORITY (AUTHORITY_NAME) values ('ROLE_ADMIN');
 
-INSERT INTO USER_AUTHORITY (MEMBER_ID, AUTHORITY_NAME) values (1, 'ROLE_USER');
-INSERT INTO USER_AUTHORITY (MEMBER_ID, AUTHORITY_NAME) values (1, 'ROLE_ADMIN');
\ No newline at end of file
+INSERT INTO USER_AUTHORITY (MEMBER_ID, AUTHORITY_NAME) SELECT MEMBER_ID, 'ROLE_USER' FROM MEMBER WHERE USERNAME = 'admin';
+INSERT INTO USER_AUTHORITY (MEMBER_ID, AUTHORITY_NAME) SELECT MEMBER_ID, 'ROLE_ADMIN' FROM MEMBER WHERE USERNAME = 'admin';
\ No newline at end of file
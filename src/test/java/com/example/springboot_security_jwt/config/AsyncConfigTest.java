@@ -0,0 +1,30 @@
+package com.example.springboot_security_jwt.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 플랫폼 스레드 모드에서 applicationTaskExecutor가 감싸는 스레드 풀이 컨텍스트와 함께 종료되는지 확인한다.
+class AsyncConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+        .withUserConfiguration(AsyncConfig.class);
+
+    @Test
+    void threadPoolIsShutDownWithTheContext() {
+        ThreadPoolTaskExecutor[] pool = new ThreadPoolTaskExecutor[1];
+        contextRunner.run(context -> {
+            assertThat(context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME))
+                .isInstanceOf(DelegatingSecurityContextAsyncTaskExecutor.class);
+            pool[0] = context.getBean("applicationTaskThreadPool", ThreadPoolTaskExecutor.class);
+            assertThat(pool[0].getThreadPoolExecutor().isShutdown()).isFalse();
+        });
+
+        assertThat(pool[0].getThreadPoolExecutor().isShutdown()).isTrue();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.springboot_security_jwt.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// compact 토큰을 만들고 다시 읽는 과정과, 변조되거나 잘리거나 만료된 토큰이 예외 없이 거절되는지 확인한다.
+class CompactTokenCodecTest {
+    private static final String SECRET =
+        "c2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQtc2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQK";
+    private static final RoleRegistry ROLES = RoleRegistry.of("ROLE_USER", "ROLE_ADMIN");
+    private static final List<GrantedAuthority> AUTHORITIES =
+        List.of(GrantedAuthorities.of("ROLE_USER"), GrantedAuthorities.of("ROLE_ADMIN"));
+    // 초 단위로 잘린 값과 비교하기 쉽도록 밀리초 부분이 있는 시각을 사용한다.
+    private static final long ISSUED_AT = 1_700_000_000_123L;
+    private static final long EXPIRES_AT = ISSUED_AT + 1_800_000L;
+
+    private final CompactTokenCodec codec = new CompactTokenCodec(JwtKeyRing.hmac(SECRET), ROLES);
+    private final UUID tokenId = UUID.randomUUID();
+
+    @TempDir
+    Path tempDir;
+
+    private String encode() {
+        return codec.encode("admin", AUTHORITIES, tokenId, ISSUED_AT, EXPIRES_AT, "관리자", 3);
+    }
+
+    @Test
+    void roundTripKeepsAllClaims() {
+        JwtVerification verification = codec.decode(encode(), ISSUED_AT);
+
+        assertThat(verification.isValid()).isTrue();
+        JwtAuthenticationToken authentication = (JwtAuthenticationToken) verification.getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("admin");
+        assertThat(List.<GrantedAuthority>copyOf(authentication.getAuthorities())).containsExactlyInAnyOrderElementsOf(AUTHORITIES);
+        assertThat(authentication.getRoleBits()).isEqualTo(ROLES.bitsOf(AUTHORITIES));
+        assertThat(authentication.getTokenId()).isEqualTo(tokenId.toString());
+        assertThat(authentication.getIssuedAtMillis()).isEqualTo(1_700_000_000_000L);
+        assertThat(authentication.getExpiresAtMillis()).isEqualTo(1_700_001_800_000L);
+        assertThat(authentication.getNickname()).isEqualTo("관리자");
+        assertThat(authentication.getProfileVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void roundTripWithoutProfile() {
+        String token = codec.encode("admin", List.of(), tokenId, ISSUED_AT, EXPIRES_AT, null, 0);
+
+        JwtAuthenticationToken authentication = (JwtAuthenticationToken) codec.decode(token, ISSUED_AT).getAuthentication();
+
+        assertThat(authentication.getAuthorities()).isEmpty();
+        assertThat(authentication.hasProfile()).isFalse();
+        assertThat(authentication.getProfileVersion()).isEqualTo(JwtAuthenticationToken.NO_PROFILE_VERSION);
+    }
+
+    @Test
+    void roundTripWithAsymmetricKeyCarriesKeyId() {
+        JwtKeyRing keyRing = new JwtKeyRing(SignatureAlgorithm.ES256, "", tempDir.toString(), true);
+        keyRing.afterPropertiesSet();
+        CompactTokenCodec ecCodec = new CompactTokenCodec(keyRing, ROLES);
+
+        String token = ecCodec.encode("admin", AUTHORITIES, tokenId, ISSUED_AT, EXPIRES_AT, null, 0);
+
+        assertThat(ecCodec.decode(token, ISSUED_AT).isValid()).isTrue();
+        assertThat(new String(payload(token))).endsWith(keyRing.getSigningKey().keyId());
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = encode();
+        byte[] payload = payload(token);
+        // 마지막 바이트는 닉네임 뒤의 프로필 버전(3)이다.
+        payload[payload.length - 1] = 4;
+
+        assertThat(codec.decode(withPayload(token, payload), ISSUED_AT).getFailureReason())
+            .isEqualTo(JwtFailureReason.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = encode();
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1));
+        signature[0] ^= 1;
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+
+        assertThat(codec.decode(forged, ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String otherSecret = Base64.getEncoder().encodeToString(new byte[64]);
+        String token = new CompactTokenCodec(JwtKeyRing.hmac(otherSecret), ROLES)
+            .encode("admin", AUTHORITIES, tokenId, ISSUED_AT, EXPIRES_AT, null, 0);
+
+        assertThat(codec.decode(token, ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void truncatedPayloadIsMalformed() {
+        String token = encode();
+        byte[] payload = payload(token);
+
+        for (int length = 0; length < payload.length; length++) {
+            byte[] truncated = Arrays.copyOf(payload, length);
+            assertThat(codec.decode(withPayload(token, truncated), ISSUED_AT).getFailureReason())
+                .as("payload %d바이트", length)
+                .isEqualTo(JwtFailureReason.MALFORMED);
+        }
+    }
+
+    @Test
+    void trailingBytesAreMalformed() {
+        String token = encode();
+        byte[] payload = payload(token);
+        byte[] extended = Arrays.copyOf(payload, payload.length + 1);
+
+        assertThat(codec.decode(withPayload(token, extended), ISSUED_AT).getFailureReason())
+            .isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    @Test
+    void brokenStructureIsMalformed() {
+        String token = encode();
+
+        assertThat(codec.decode("ct.", ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(codec.decode("ct.abc", ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(codec.decode("ct..abc", ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(codec.decode(token.substring(0, token.lastIndexOf('.') + 1), ISSUED_AT).getFailureReason())
+            .isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(codec.decode("ct.!!!!.abc", ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    @Test
+    void oversizedTokenIsMalformed() {
+        String token = encode() + "A".repeat(TokenStructure.MAX_TOKEN_LENGTH);
+
+        assertThat(codec.decode(token, ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    @Test
+    void oversizedStringLengthIsMalformed() {
+        String token = encode();
+        byte[] payload = payload(token);
+        // 버전, 플래그, 레지스트리 id(4), 역할 비트(1), 발급 시각(5), 유효 시간(2), 토큰 id(16) 다음이 subject 길이이다.
+        int subjectLengthIndex = 1 + 1 + 4 + 1 + 5 + 2 + 16;
+        assertThat(payload[subjectLengthIndex]).isEqualTo((byte) "admin".length());
+        payload[subjectLengthIndex] = 0x7F;
+
+        assertThat(codec.decode(withPayload(token, payload), ISSUED_AT).getFailureReason())
+            .isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    @Test
+    void expiredTokenIsRejectedBeforeSignatureCheck() {
+        String token = encode();
+
+        assertThat(codec.decode(token, 1_700_001_800_000L).isValid()).isTrue();
+        assertThat(codec.decode(token, 1_700_001_800_001L).getFailureReason()).isEqualTo(JwtFailureReason.EXPIRED);
+    }
+
+    @Test
+    void unknownVersionIsUnsupported() {
+        String token = encode();
+        byte[] payload = payload(token);
+        payload[0] = 2;
+
+        assertThat(codec.decode(withPayload(token, payload), ISSUED_AT).getFailureReason())
+            .isEqualTo(JwtFailureReason.UNSUPPORTED);
+    }
+
+    @Test
+    void tokenFromAnotherRoleRegistryIsUnsupported() {
+        CompactTokenCodec otherCodec = new CompactTokenCodec(JwtKeyRing.hmac(SECRET),
+            RoleRegistry.of("ROLE_USER", "ROLE_ADMIN", "ROLE_MANAGER"));
+
+        assertThat(otherCodec.decode(encode(), ISSUED_AT).getFailureReason()).isEqualTo(JwtFailureReason.UNSUPPORTED);
+    }
+
+    @Test
+    void authorityOutsideRegistryCannotBeEncoded() {
+        assertThatThrownBy(() -> codec.encode("admin",
+                List.of(GrantedAuthorities.of("ROLE_MANAGER")), tokenId, ISSUED_AT, EXPIRES_AT, null, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] payload(String token) {
+        return Base64.getUrlDecoder().decode(token.substring(CompactTokenCodec.PREFIX.length(), token.lastIndexOf('.')));
+    }
+
+    // 서명은 그대로 두고 payload만 바꾼다.
+    private static String withPayload(String token, byte[] payload) {
+        return CompactTokenCodec.PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(payload)
+            + token.substring(token.lastIndexOf('.'));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 인증 취소(setAuthenticated(false))가 권한 검사에 반영되고, 검증된 토큰 캐시를 공유하는 다른 요청에는 영향을 주지 않는지 확인한다.
+class JwtAuthenticationTokenTest {
+    private static final String SECRET =
+        "c2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQtc2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQK";
+    private static final RoleRegistry ROLES = RoleRegistry.of("ROLE_USER", "ROLE_ADMIN");
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(GrantedAuthorities.of("ROLE_USER"));
+
+    private static JwtAuthenticationToken authentication() {
+        return new JwtAuthenticationToken("user", "token", AUTHORITIES, ROLES.bitsOf(AUTHORITIES), "id", 0L, Long.MAX_VALUE);
+    }
+
+    @Test
+    void canBeMarkedUnauthenticatedButNotAuthenticated() {
+        JwtAuthenticationToken authentication = authentication();
+        assertThat(authentication.isAuthenticated()).isTrue();
+
+        assertThatThrownBy(() -> authentication.setAuthenticated(true)).isInstanceOf(IllegalArgumentException.class);
+        authentication.setAuthenticated(false);
+
+        assertThat(authentication.isAuthenticated()).isFalse();
+        assertThatThrownBy(() -> authentication.setAuthenticated(true)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unauthenticatedTokenIsDeniedEvenWithRole() {
+        RoleAuthorizationManager<Object> userOnly = RoleAuthorizationManager.hasAnyRole(ROLES, "USER");
+        JwtAuthenticationToken authentication = authentication();
+        assertThat(userOnly.check(() -> authentication, null).isGranted()).isTrue();
+
+        authentication.setAuthenticated(false);
+
+        assertThat(userOnly.check(() -> authentication, null).isGranted()).isFalse();
+    }
+
+    @Test
+    void unauthenticatingOneRequestDoesNotAffectCachedToken() {
+        TokenProvider tokenProvider = new TokenProvider(JwtKeyRing.hmac(SECRET), 1_800, new VerifiedTokenCache(true, 100),
+            new TokenDenylist(100), TokenMetrics.noop(), ROLES);
+        tokenProvider.afterPropertiesSet();
+        MemberPrincipal principal = new MemberPrincipal("user", "", AUTHORITIES, "user", 1);
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES));
+        JwtAuthenticationToken first = (JwtAuthenticationToken) tokenProvider.authenticate(token).getAuthentication();
+        JwtAuthenticationToken second = (JwtAuthenticationToken) tokenProvider.authenticate(token).getAuthentication();
+
+        first.setAuthenticated(false);
+        second.setAuthenticated(false);
+        JwtAuthenticationToken third = (JwtAuthenticationToken) tokenProvider.authenticate(token).getAuthentication();
+
+        // 첫 요청(캐시 저장)과 캐시 적중 요청 모두 각자의 인스턴스를 받는다.
+        assertThat(second).isNotSameAs(first);
+        assertThat(third).isNotSameAs(first).isNotSameAs(second);
+        assertThat(third.isAuthenticated()).isTrue();
+        assertThat(third.getAuthorities()).isSameAs(first.getAuthorities());
+        assertThat(third.getRoleBits()).isEqualTo(first.getRoleBits());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.springboot_security_jwt.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+// 키 디렉터리에서 키를 읽고, 새 키 파일로 교체하고, JWKS를 만드는 과정을 확인한다.
+class JwtKeyRingTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String SECRET =
+        "c2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQtc2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQK";
+
+    @TempDir
+    Path tempDir;
+
+    private JwtKeyRing keyRing(SignatureAlgorithm algorithm, Path directory, boolean generateIfMissing) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, "", directory.toString(), generateIfMissing);
+        keyRing.afterPropertiesSet();
+        return keyRing;
+    }
+
+    @Test
+    void generatedKeyIsReadableOnlyByOwner() throws Exception {
+        assumeThat(tempDir.getFileSystem().supportedFileAttributeViews()).contains("posix");
+        Path directory = tempDir.resolve("keys");
+
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, directory, true);
+
+        Path privateKeyFile = directory.resolve(keyRing.getSigningKey().keyId() + ".key");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(privateKeyFile))).isEqualTo("rw-------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(directory))).isEqualTo("rwx------");
+    }
+
+    @Test
+    void existingKeysAreLoadedAndVerifySignatures() throws Exception {
+        KeyPair keyPair = JwtKeyRing.generateKeyPair(SignatureAlgorithm.ES256);
+        writeKeyPair(tempDir, "existing", keyPair, 1_000);
+
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, tempDir, false);
+
+        assertThat(keyRing.getSigningKey().keyId()).isEqualTo("existing");
+        assertThat(keyRing.getSigningKey().key()).isEqualTo(keyPair.getPrivate());
+        assertThat(verifies(keyRing.getSigningKey().key(), verificationKey(keyRing, "existing"))).isTrue();
+        assertThat(verificationKey(keyRing, null)).isEqualTo(keyPair.getPublic());
+        assertThat(verificationKey(keyRing, "unknown")).isNull();
+    }
+
+    @Test
+    void missingKeysFailWhenGenerationIsDisabled() {
+        assertThatThrownBy(() -> keyRing(SignatureAlgorithm.ES256, tempDir, false))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void newerKeySignsAfterRefreshAndOldKeyStillVerifiesUntilRemoved() throws Exception {
+        writeKeyPair(tempDir, "old", JwtKeyRing.generateKeyPair(SignatureAlgorithm.ES256), 1_000);
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, tempDir, false);
+        Key oldSigningKey = keyRing.getSigningKey().key();
+
+        writeKeyPair(tempDir, "new", JwtKeyRing.generateKeyPair(SignatureAlgorithm.ES256), 2_000);
+        keyRing.refresh();
+
+        assertThat(keyRing.getSigningKey().keyId()).isEqualTo("new");
+        assertThat(verifies(oldSigningKey, verificationKey(keyRing, "old"))).isTrue();
+        assertThat(jwks(keyRing)).extracting(jwk -> jwk.get("kid").asText()).containsExactly("old", "new");
+
+        Files.delete(tempDir.resolve("old.key"));
+        Files.delete(tempDir.resolve("old.pub"));
+        keyRing.refresh();
+
+        assertThat(verificationKey(keyRing, "old")).isNull();
+        assertThat(jwks(keyRing)).extracting(jwk -> jwk.get("kid").asText()).containsExactly("new");
+    }
+
+    @Test
+    void invalidKeyFileKeepsCurrentKeys() throws Exception {
+        writeKeyPair(tempDir, "good", JwtKeyRing.generateKeyPair(SignatureAlgorithm.ES256), 1_000);
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, tempDir, false);
+
+        Files.writeString(tempDir.resolve("broken.key"), "not a key");
+        Files.writeString(tempDir.resolve("broken.pub"), "not a key");
+        Files.setLastModifiedTime(tempDir.resolve("broken.key"), FileTime.fromMillis(2_000));
+        keyRing.refresh();
+
+        assertThat(keyRing.getSigningKey().keyId()).isEqualTo("good");
+    }
+
+    @Test
+    void ecJwksContainsPaddedCoordinates() throws Exception {
+        writeKeyPair(tempDir, "ec", JwtKeyRing.generateKeyPair(SignatureAlgorithm.ES256), 1_000);
+
+        JsonNode jwk = jwks(keyRing(SignatureAlgorithm.ES256, tempDir, false)).get(0);
+
+        assertThat(jwk.get("kty").asText()).isEqualTo("EC");
+        assertThat(jwk.get("kid").asText()).isEqualTo("ec");
+        assertThat(jwk.get("use").asText()).isEqualTo("sig");
+        assertThat(jwk.get("alg").asText()).isEqualTo("ES256");
+        assertThat(jwk.get("crv").asText()).isEqualTo("P-256");
+        assertThat(Base64.getUrlDecoder().decode(jwk.get("x").asText())).hasSize(32);
+        assertThat(Base64.getUrlDecoder().decode(jwk.get("y").asText())).hasSize(32);
+        assertThat(jwk.has("d")).isFalse();
+    }
+
+    @Test
+    void rsaJwksContainsModulusAndExponent() throws Exception {
+        writeKeyPair(tempDir, "rsa", JwtKeyRing.generateKeyPair(SignatureAlgorithm.RS256), 1_000);
+
+        JsonNode jwk = jwks(keyRing(SignatureAlgorithm.RS256, tempDir, false)).get(0);
+
+        assertThat(jwk.get("kty").asText()).isEqualTo("RSA");
+        assertThat(jwk.get("alg").asText()).isEqualTo("RS256");
+        assertThat(jwk.get("e").asText()).isEqualTo("AQAB");
+        // 2048비트 modulus는 앞의 부호 바이트 없이 256바이트이다.
+        assertThat(Base64.getUrlDecoder().decode(jwk.get("n").asText())).hasSize(256);
+    }
+
+    @Test
+    void hmacKeyIsNeverPublished() throws Exception {
+        JwtKeyRing keyRing = JwtKeyRing.hmac(SECRET);
+
+        assertThat(keyRing.getSigningKey().keyId()).isNull();
+        assertThat(verificationKey(keyRing, null)).isEqualTo(keyRing.getSigningKey().key());
+        assertThat(jwks(keyRing)).isEmpty();
+    }
+
+    // 토큰 헤더의 kid로 검증 키를 찾는다. 알 수 없는 kid이면 null을 반환한다.
+    private static Key verificationKey(JwtKeyRing keyRing, String keyId) {
+        try {
+            return keyRing.resolveSigningKey(Jwts.jwsHeader().setKeyId(keyId), (Claims) null);
+        }
+        catch (SignatureException e) {
+            return null;
+        }
+    }
+
+    private static List<JsonNode> jwks(JwtKeyRing keyRing) throws Exception {
+        List<JsonNode> keys = new ArrayList<>();
+        objectMapper.readTree(keyRing.getJwks()).get("keys").forEach(keys::add);
+        return keys;
+    }
+
+    // 키 파일은 수정 시각 순으로 정렬되므로 수정 시각을 직접 정해서 어떤 키가 서명 키가 될지 고정한다.
+    private static void writeKeyPair(Path directory, String keyId, KeyPair keyPair, long lastModifiedMillis) throws Exception {
+        Files.writeString(directory.resolve(keyId + ".pub"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        Path privateKeyFile = directory.resolve(keyId + ".key");
+        Files.writeString(privateKeyFile, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.setLastModifiedTime(privateKeyFile, FileTime.fromMillis(lastModifiedMillis));
+    }
+
+    private static String pem(String type, byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(encoded) + "\n-----END " + type + "-----\n";
+    }
+
+    private static boolean verifies(Key privateKey, Key publicKey) throws Exception {
+        byte[] data = "payload".getBytes();
+        Signature signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign((PrivateKey) privateKey);
+        signer.update(data);
+        byte[] signature = signer.sign();
+        Signature verifier = Signature.getInstance("SHA256withECDSA");
+        verifier.initVerify((PublicKey) publicKey);
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 리액티브 모드의 401/403 응답이 서블릿 모드와 같은 상태 코드, WWW-Authenticate 헤더, JSON 본문인지 확인한다.
+// 로그인 실패(BadCredentialsException)는 토큰이 없는 요청과 구분되어야 한다.
+class JwtServerErrorHandlersTest {
+    private final JwtServerAuthenticationEntryPoint entryPoint = new JwtServerAuthenticationEntryPoint();
+    private final JwtServerAccessDeniedHandler accessDeniedHandler = new JwtServerAccessDeniedHandler();
+
+    @Test
+    void missingTokenIsRejectedWithJsonBody() throws Exception {
+        MockServerWebExchange exchange = exchange();
+
+        entryPoint.commence(exchange, new AuthenticationCredentialsNotFoundException("no token")).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+        assertThat(body(exchange)).isEqualTo("{\"status\":401,\"error\":\"unauthorized\",\"reason\":\"missing_token\"}");
+        assertSameAsServlet(exchange, servletEntryPointResponse(null));
+    }
+
+    @Test
+    void invalidTokenReportsFailureReason() throws Exception {
+        MockServerWebExchange exchange = exchange();
+        exchange.getAttributes().put(JwtFilter.FAILURE_REASON_ATTRIBUTE, JwtFailureReason.EXPIRED);
+
+        entryPoint.commence(exchange, new InvalidJwtException(JwtFailureReason.EXPIRED)).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+            .isEqualTo("Bearer error=\"invalid_token\"");
+        assertThat(body(exchange)).isEqualTo("{\"status\":401,\"error\":\"unauthorized\",\"reason\":\"expired\"}");
+        assertSameAsServlet(exchange, servletEntryPointResponse(JwtFailureReason.EXPIRED));
+    }
+
+    @Test
+    void everyFailureReasonMatchesServletResponse() throws Exception {
+        for (JwtFailureReason reason : JwtFailureReason.values()) {
+            MockServerWebExchange exchange = exchange();
+            exchange.getAttributes().put(JwtFilter.FAILURE_REASON_ATTRIBUTE, reason);
+
+            entryPoint.commence(exchange, new InvalidJwtException(reason)).block();
+
+            assertSameAsServlet(exchange, servletEntryPointResponse(reason));
+        }
+    }
+
+    @Test
+    void badCredentialsAreReportedWithoutBearerChallenge() throws Exception {
+        MockServerWebExchange exchange = exchange();
+
+        entryPoint.commence(exchange, new BadCredentialsException("bad credentials")).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.WWW_AUTHENTICATE)).isFalse();
+        assertThat(body(exchange)).isEqualTo("{\"status\":401,\"error\":\"unauthorized\",\"reason\":\"bad_credentials\"}");
+
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        new JwtAuthenticationEntryPoint().commence(new MockHttpServletRequest(), servletResponse,
+            new BadCredentialsException("bad credentials"));
+        assertSameAsServlet(exchange, servletResponse);
+    }
+
+    @Test
+    void accessDeniedIsRejectedWithJsonBody() throws Exception {
+        MockServerWebExchange exchange = exchange();
+
+        accessDeniedHandler.handle(exchange, new AccessDeniedException("denied")).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+            .isEqualTo("Bearer error=\"insufficient_scope\"");
+        assertThat(body(exchange)).isEqualTo("{\"status\":403,\"error\":\"forbidden\",\"reason\":\"insufficient_scope\"}");
+
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        new JwtAccessDeniedHandler().handle(new MockHttpServletRequest(), servletResponse, new AccessDeniedException("denied"));
+        assertSameAsServlet(exchange, servletResponse);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/user"));
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    private static MockHttpServletResponse servletEntryPointResponse(JwtFailureReason reason) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (reason != null) {
+            request.setAttribute(JwtFilter.FAILURE_REASON_ATTRIBUTE, reason);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new JwtAuthenticationEntryPoint().commence(request, response, new AuthenticationCredentialsNotFoundException("no token"));
+        return response;
+    }
+
+    private static void assertSameAsServlet(MockServerWebExchange exchange, MockHttpServletResponse servletResponse)
+        throws Exception {
+        assertThat(exchange.getResponse().getStatusCode().value()).isEqualTo(servletResponse.getStatus());
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+            .isEqualTo(servletResponse.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertThat(exchange.getResponse().getHeaders().getContentType().toString())
+            .isEqualTo(servletResponse.getContentType());
+        assertThat(body(exchange)).isEqualTo(servletResponse.getContentAsString());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 토큰 단위 폐기, 사용자 단위 폐기 시각의 경계, 만료된 항목 정리와 Bloom filter 교체를 확인한다.
+class TokenDenylistTest {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long EXPIRES = NOW + 1_800_000L;
+
+    @Test
+    void revokedTokenIdIsRejectedAndOthersAreNot() {
+        TokenDenylist denylist = new TokenDenylist(1_000);
+        List<String> revoked = tokenIds(5_000);
+        revoked.forEach(tokenId -> denylist.revokeToken(tokenId, EXPIRES));
+
+        assertThat(revoked).allMatch(tokenId -> denylist.isRevoked(tokenId, "user", NOW));
+        assertThat(tokenIds(5_000)).noneMatch(tokenId -> denylist.isRevoked(tokenId, "user", NOW));
+    }
+
+    @Test
+    void userCutoffRejectsTokensIssuedUpToTheSameSecond() {
+        TokenDenylist denylist = new TokenDenylist(1_000);
+        // 폐기 시각은 밀리초, 토큰의 iat는 초 단위로 잘린 값이다.
+        denylist.revokeUser("user", NOW + 500, EXPIRES);
+
+        assertThat(denylist.isRevoked(null, "user", NOW - 1_000)).isTrue();
+        // 폐기한 그 초에 발급된 토큰은 폐기 직전에 발급되었을 수 있으므로 함께 폐기된다.
+        assertThat(denylist.isRevoked(null, "user", NOW)).isTrue();
+        assertThat(denylist.isRevoked(UUID.randomUUID().toString(), "user", NOW)).isTrue();
+        assertThat(denylist.isRevoked(null, "user", NOW + 1_000)).isFalse();
+        assertThat(denylist.isRevoked(UUID.randomUUID().toString(), "user", NOW + 1_000)).isFalse();
+        assertThat(denylist.isRevoked(null, "other", NOW - 1_000)).isFalse();
+    }
+
+    @Test
+    void laterUserCutoffWins() {
+        TokenDenylist denylist = new TokenDenylist(1_000);
+        denylist.revokeUser("user", NOW + 10_000, EXPIRES);
+        denylist.revokeUser("user", NOW, EXPIRES);
+
+        assertThat(denylist.isRevoked(null, "user", NOW + 10_000)).isTrue();
+        assertThat(denylist.isRevoked(null, "user", NOW + 11_000)).isFalse();
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesAndKeepsLiveOnes() {
+        TokenDenylist denylist = new TokenDenylist(1_000);
+        denylist.revokeToken("expired", NOW - 1);
+        denylist.revokeToken("live", EXPIRES);
+        denylist.revokeUser("expired-user", NOW + 500, NOW - 1);
+        denylist.revokeUser("live-user", NOW + 500, EXPIRES);
+
+        denylist.purgeExpired(NOW);
+
+        assertThat(denylist.size()).isEqualTo(2);
+        assertThat(denylist.isRevoked("expired", "user", NOW)).isFalse();
+        assertThat(denylist.isRevoked("live", "user", NOW)).isTrue();
+        assertThat(denylist.isRevoked(null, "expired-user", NOW - 1_000)).isFalse();
+        assertThat(denylist.isRevoked(null, "live-user", NOW - 1_000)).isTrue();
+    }
+
+    // 필터를 다시 만드는 동안 추가된 jti도 교체 후의 필터에 들어 있어야 한다.
+    @Test
+    void tokensRevokedDuringRebuildAreNotLost() throws Exception {
+        TokenDenylist denylist = new TokenDenylist(1_000);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> purger = executor.submit(() -> {
+                while (running.get()) {
+                    denylist.purgeExpired(NOW);
+                }
+            });
+            List<Future<List<String>>> revokers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                revokers.add(executor.submit(() -> {
+                    List<String> tokenIds = tokenIds(20_000);
+                    tokenIds.forEach(tokenId -> denylist.revokeToken(tokenId, EXPIRES));
+                    return tokenIds;
+                }));
+            }
+
+            List<String> revoked = new ArrayList<>();
+            for (Future<List<String>> revoker : revokers) {
+                revoked.addAll(revoker.get(60, TimeUnit.SECONDS));
+            }
+            running.set(false);
+            purger.get(60, TimeUnit.SECONDS);
+
+            assertThat(revoked).allMatch(tokenId -> denylist.isRevoked(tokenId, "user", NOW));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> tokenIds(int count) {
+        List<String> tokenIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokenIds.add(UUID.randomUUID().toString());
+        }
+        return tokenIds;
+    }
+}
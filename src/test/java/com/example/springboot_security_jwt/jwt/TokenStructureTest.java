@@ -0,0 +1,100 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// jjwt로 파싱하기 전의 사전 검사가 형식이 잘못된 토큰과 만료된 토큰만 거절하고,
+// 판단할 수 없는 토큰은 jjwt에 넘기는지(null) 확인한다.
+class TokenStructureTest {
+    private static final String HEADER = "eyJhbGciOiJIUzUxMiJ9";
+    private static final long EXP = 1_700_000_000L;
+    private static final long BEFORE_EXP = EXP * 1000 - 1;
+    private static final long AFTER_EXP = EXP * 1000 + 1;
+
+    private static String token(String payloadJson) {
+        return HEADER + "." + Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8)) + ".c2lnbmF0dXJl";
+    }
+
+    @Test
+    void validTokenPasses() {
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"admin\",\"exp\":" + EXP + "}"), BEFORE_EXP)).isNull();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = token("{\"sub\":\"admin\",\"exp\":" + EXP + "}");
+
+        assertThat(TokenStructure.precheck(token, EXP * 1000)).isNull();
+        assertThat(TokenStructure.precheck(token, AFTER_EXP)).isEqualTo(JwtFailureReason.EXPIRED);
+    }
+
+    @Test
+    void whitespaceAroundKeyAndColonIsAllowed() {
+        String token = token("{ \"sub\" : \"admin\" ,\n\t\"exp\" :  " + EXP + " }");
+
+        assertThat(TokenStructure.precheck(token, AFTER_EXP)).isEqualTo(JwtFailureReason.EXPIRED);
+    }
+
+    @Test
+    void expInsideStringValueIsIgnored() {
+        // 문자열 값 "exp" 다음의 숫자를 exp로 읽으면 안 된다.
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"exp\",\"n\":1,\"exp\":" + EXP + "}"), BEFORE_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"exp\",\"exp\":" + EXP + "}"), AFTER_EXP))
+            .isEqualTo(JwtFailureReason.EXPIRED);
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"\\\"exp\\\":1\",\"exp\":" + EXP + "}"), BEFORE_EXP)).isNull();
+    }
+
+    @Test
+    void expInNestedObjectIsIgnored() {
+        String token = token("{\"ctx\":{\"exp\":1},\"list\":[{\"exp\":1}],\"exp\":" + EXP + "}");
+
+        assertThat(TokenStructure.precheck(token, BEFORE_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token, AFTER_EXP)).isEqualTo(JwtFailureReason.EXPIRED);
+    }
+
+    @Test
+    void undecidablePayloadIsLeftToParser() {
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"admin\"}"), AFTER_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token("{\"exp\":\"soon\"}"), AFTER_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token("{\"exp\":-1}"), AFTER_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token("{\"sub\":\"unterminated"), AFTER_EXP)).isNull();
+        assertThat(TokenStructure.precheck(token("not json"), AFTER_EXP)).isNull();
+        // Base64 길이가 맞지 않는 payload
+        assertThat(TokenStructure.precheck(HEADER + ".A.c2ln", AFTER_EXP)).isNull();
+    }
+
+    @Test
+    void malformedStructureIsRejected() {
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(TokenStructure.precheck("", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER, AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER + "." + payload, AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck("." + payload + ".c2ln", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER + "..c2ln", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER + "." + payload + ".c2ln.x", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER + "." + payload + ".c2l+", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+        assertThat(TokenStructure.precheck(HEADER + "." + payload + ".c2ln=", AFTER_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    @Test
+    void oversizedTokenIsRejected() {
+        String token = token("{\"pad\":\"" + "a".repeat(TokenStructure.MAX_TOKEN_LENGTH) + "\"}");
+
+        assertThat(TokenStructure.precheck(token, BEFORE_EXP)).isEqualTo(JwtFailureReason.MALFORMED);
+    }
+
+    // 서명 부분이 없는 unsecured JWT(header.payload.)는 jjwt가 UNSUPPORTED로 거절하도록 넘긴다.
+    @Test
+    void emptySignatureIsLeftToParser() {
+        String token = token("{\"exp\":" + EXP + "}");
+        String unsigned = token.substring(0, token.lastIndexOf('.') + 1);
+
+        assertThat(TokenStructure.precheck(unsigned, BEFORE_EXP)).isNull();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.springboot_security_jwt.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 검증된 토큰 캐시의 항목이 토큰의 exp에 사라지는지, 캐시에서 꺼낸 토큰도 폐기 여부를 확인하는지 검사한다.
+class VerifiedTokenCacheTest {
+    private static final String SECRET =
+        "c2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQtc2lsdmVybmluZS10ZWNoLXNwcmluZy1ib290LWp3dC10dXRvcmlhbC1zZWNyZXQK";
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(GrantedAuthorities.of("ROLE_USER"));
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenDenylist tokenDenylist;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(true, 1_000);
+        tokenDenylist = new TokenDenylist(1_000);
+    }
+
+    // 유효 시간이 validitySeconds초인 토큰을 만드는 TokenProvider이다.
+    private TokenProvider tokenProvider(long validitySeconds) {
+        TokenProvider tokenProvider = new TokenProvider(JwtKeyRing.hmac(SECRET), validitySeconds, verifiedTokenCache,
+            tokenDenylist, TokenMetrics.noop(), RoleRegistry.of("ROLE_USER", "ROLE_ADMIN"));
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+
+    private static String createToken(TokenProvider tokenProvider) {
+        MemberPrincipal principal = new MemberPrincipal("user", "", AUTHORITIES, "user", 1);
+        return tokenProvider.createToken(new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES));
+    }
+
+    private static JwtAuthenticationToken authentication(JwtVerification verification) {
+        return (JwtAuthenticationToken) verification.getAuthentication();
+    }
+
+    @Test
+    void entryExpiresAtGivenTime() throws Exception {
+        long expiresAt = System.currentTimeMillis() + 300;
+        verifiedTokenCache.put("token", new JwtAuthenticationToken("user", "token", AUTHORITIES, 1L, "id", 0L, expiresAt),
+            expiresAt);
+
+        assertThat(verifiedTokenCache.get("token")).isNotNull();
+        Thread.sleep(expiresAt - System.currentTimeMillis() + 50);
+        assertThat(verifiedTokenCache.get("token")).isNull();
+    }
+
+    @Test
+    void alreadyExpiredEntryIsNotStored() {
+        long expiresAt = System.currentTimeMillis() - 1;
+        verifiedTokenCache.put("token", new JwtAuthenticationToken("user", "token", AUTHORITIES, 1L, "id", 0L, expiresAt),
+            expiresAt);
+
+        assertThat(verifiedTokenCache.get("token")).isNull();
+    }
+
+    @Test
+    void cachedTokenIsDroppedAtItsExpAndThenRejectedAsExpired() throws Exception {
+        // exp는 초 단위로 잘리므로 2초로 해야 저장 시점에 최소 1초가 남는다.
+        TokenProvider tokenProvider = tokenProvider(2);
+        String token = createToken(tokenProvider);
+
+        JwtVerification first = tokenProvider.authenticate(token);
+        assertThat(first.isValid()).isTrue();
+        assertThat(tokenProvider.authenticate(token).isValid()).isTrue();
+        assertThat(verifiedTokenCache.stats().hitCount()).isEqualTo(1);
+
+        long expiresAt = authentication(first).getExpiresAtMillis();
+        Thread.sleep(Math.max(expiresAt - System.currentTimeMillis(), 0) + 50);
+
+        assertThat(verifiedTokenCache.get(token)).isNull();
+        assertThat(tokenProvider.authenticate(token).getFailureReason()).isEqualTo(JwtFailureReason.EXPIRED);
+    }
+
+    @Test
+    void revokedTokenIsRejectedOnCacheHit() {
+        TokenProvider tokenProvider = tokenProvider(1_800);
+        String token = createToken(tokenProvider);
+        JwtAuthenticationToken authentication = authentication(tokenProvider.authenticate(token));
+        assertThat(verifiedTokenCache.size()).isEqualTo(1);
+
+        tokenDenylist.revokeToken(authentication.getTokenId(), authentication.getExpiresAtMillis());
+
+        assertThat(tokenProvider.authenticate(token).getFailureReason()).isEqualTo(JwtFailureReason.REVOKED);
+        assertThat(verifiedTokenCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userRevocationRejectsCachedToken() {
+        TokenProvider tokenProvider = tokenProvider(1_800);
+        String token = createToken(tokenProvider);
+        JwtAuthenticationToken authentication = authentication(tokenProvider.authenticate(token));
+
+        tokenDenylist.revokeUser("user", authentication.getIssuedAtMillis() + 1_000, authentication.getExpiresAtMillis());
+
+        assertThat(tokenProvider.authenticate(token).getFailureReason()).isEqualTo(JwtFailureReason.REVOKED);
+        assertThat(verifiedTokenCache.stats().hitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.entity.Member;
+import com.example.springboot_security_jwt.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 회원 정보가 한 번만 읽혀 캐시되고, evict()로 지워지는지 확인한다.
+// 데이터베이스에서 읽는 동안 evict()가 호출되면, 읽은 (오래되었을 수 있는) 값이 캐시에 남지 않아야 한다.
+class MemberCacheTest {
+    private MemberRepository memberRepository;
+    private MemberCache memberCache;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        memberCache = new MemberCache(memberRepository, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    private static Member member(String nickname) {
+        return Member.builder()
+            .username("user")
+            .password("password")
+            .nickname(nickname)
+            .activated(true)
+            .authorities(Set.of())
+            .build();
+    }
+
+    @Test
+    void loadedMemberIsCached() {
+        when(memberRepository.findOneWithAuthoritiesByUsername("user")).thenReturn(Optional.of(member("before")));
+
+        memberCache.findByUsername("user");
+        memberCache.findByUsername("user");
+
+        verify(memberRepository, times(1)).findOneWithAuthoritiesByUsername("user");
+    }
+
+    @Test
+    void missingMemberIsNotCached() {
+        when(memberRepository.findOneWithAuthoritiesByUsername("user")).thenReturn(Optional.empty());
+
+        assertThat(memberCache.findByUsername("user")).isEmpty();
+        assertThat(memberCache.getNativeCache().getIfPresent("user")).isNull();
+    }
+
+    @Test
+    void snapshotLoadedDuringEvictIsNotCached() {
+        // 조회 도중 다른 요청이 닉네임을 바꾸고 evict()를 호출한 상황이다. 조회 결과는 바뀌기 전의 값이다.
+        when(memberRepository.findOneWithAuthoritiesByUsername("user")).thenAnswer(invocation -> {
+            memberCache.evict("user");
+            return Optional.of(member("before"));
+        });
+
+        assertThat(memberCache.findByUsername("user")).hasValueSatisfying(snapshot ->
+            assertThat(snapshot.nickname()).isEqualTo("before"));
+        assertThat(memberCache.getNativeCache().getIfPresent("user")).isNull();
+
+        when(memberRepository.findOneWithAuthoritiesByUsername("user")).thenReturn(Optional.of(member("after")));
+        assertThat(memberCache.findByUsername("user")).hasValueSatisfying(snapshot ->
+            assertThat(snapshot.nickname()).isEqualTo("after"));
+        assertThat(memberCache.getNativeCache().getIfPresent("user").nickname()).isEqualTo("after");
+    }
+
+    @Test
+    void evictRemovesCachedSnapshot() {
+        when(memberRepository.findOneWithAuthoritiesByUsername("user")).thenReturn(Optional.of(member("before")));
+        memberCache.findByUsername("user");
+
+        memberCache.evict("user");
+
+        assertThat(memberCache.getNativeCache().getIfPresent("user")).isNull();
+    }
+}
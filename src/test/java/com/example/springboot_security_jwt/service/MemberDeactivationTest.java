@@ -0,0 +1,89 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.jwt.JwtAuthenticationToken;
+import com.example.springboot_security_jwt.jwt.TokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 비활성화된 사용자의 액세스 토큰이 다음 요청부터 거부되는지 확인한다.
+// 토큰의 iat는 초 단위이므로, 토큰을 발급한 그 초 안에 비활성화해도 토큰이 남지 않아야 한다.
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberDeactivationTest {
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void tokenIssuedInTheSameSecondAsDeactivationIsRejected() throws Exception {
+        // 초가 바뀌는 순간에 걸리면 같은 초가 아니므로 새 사용자로 다시 시도한다.
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String username = "same-second-user-" + attempt;
+            signup(username);
+            Thread.sleep(1_000 - System.currentTimeMillis() % 1_000);
+
+            String token = login(username);
+            JwtAuthenticationToken authentication = (JwtAuthenticationToken) tokenProvider.authenticate(token)
+                .getAuthentication();
+            mockMvc.perform(get("/api/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+            memberService.deactivate(username);
+            if (System.currentTimeMillis() / 1_000 != authentication.getIssuedAtMillis() / 1_000) {
+                continue;
+            }
+
+            mockMvc.perform(get("/api/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+            return;
+        }
+        throw new AssertionError("토큰 발급과 비활성화를 같은 초 안에 실행하지 못했습니다.");
+    }
+
+    private void signup(String username) {
+        memberService.signup(MemberDto.builder()
+            .username(username)
+            .password("password")
+            .nickname("nickname")
+            .build());
+    }
+
+    private String login(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"password\"}";
+        // 로그인은 loginExecutor에서 비동기로 처리되므로 결과를 다시 디스패치해서 받는다.
+        MvcResult login = mockMvc.perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String response = mockMvc.perform(asyncDispatch(login))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(response).get("token").asText();
+        assertThat(token).isNotBlank();
+        return token;
+    }
+}
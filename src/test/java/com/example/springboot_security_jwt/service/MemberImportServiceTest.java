@@ -0,0 +1,111 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.MemberImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+
+// 일괄 가입에서 한 행의 실패가 다른 행이나 요청 전체를 실패시키지 않는지 확인한다.
+// 비밀번호 해시 실패와, username 중복이 아닌 제약 조건 위반을 일으키도록 PasswordEncoder를 바꿔서 만든다.
+@SpringBootTest
+class MemberImportServiceTest {
+    // 이 비밀번호는 해시 계산 중 예외가 발생한다.
+    private static final String FAILING_PASSWORD = "hash-fails";
+    // 이 비밀번호는 password 컬럼(255자)보다 긴 해시가 되어 insert가 실패한다.
+    private static final String TOO_LONG_PASSWORD = "hash-too-long";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MemberImportService memberImportService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder passwordEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (FAILING_PASSWORD.contentEquals(rawPassword)) {
+                    throw new IllegalStateException("hash failed");
+                }
+                return TOO_LONG_PASSWORD.contentEquals(rawPassword) ? "x".repeat(300) : "{noop}" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("{noop}" + rawPassword);
+            }
+        };
+        memberImportService = new MemberImportService(jdbcTemplate, transactionTemplate, passwordEncoder, validator,
+            objectMapper, 10, 2, DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberImportService.destroy();
+    }
+
+    @Test
+    void failedRowsAreReportedWithTheirOwnReason() throws Exception {
+        String csv = "username,password,nickname\n"
+            + "import-ok-1,password1,ok-1\n"
+            + "import-hash,hash-fails,hash\n"
+            + "import-long,hash-too-long,long\n"
+            + "admin,password1,admin\n"
+            + "import-ok-2,password1,ok-2\n";
+
+        MemberImportResult result = memberImportService.importMembers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MemberImportService.Format.CSV);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors())
+            .extracting(MemberImportResult.RowError::getLine, MemberImportResult.RowError::getMessage)
+            .containsExactlyInAnyOrder(
+                tuple(3, "비밀번호를 암호화하지 못했습니다."),
+                tuple(4, "데이터베이스 제약 조건을 위반했습니다."),
+                tuple(5, "이미 가입되어 있는 유저입니다."));
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForList(
+            "SELECT username FROM member WHERE username LIKE 'import-%'", String.class))
+            .containsExactlyInAnyOrder("import-ok-1", "import-ok-2");
+    }
+
+    // 확인 쿼리 뒤에 다른 요청이 먼저 가입한 경우에는 JDBC 예외의 제약 조건 이름으로 중복을 구분한다.
+    @Test
+    void usernameConstraintIsRecognizedFromJdbcInsert() {
+        DataIntegrityViolationException duplicate = catchThrowableOfType(() -> jdbcTemplate.getJdbcTemplate().update(
+                "INSERT INTO member (username, password, nickname, activated, profile_version) VALUES ('admin', 'x', 'x', TRUE, 0)"),
+            DataIntegrityViolationException.class);
+        DataIntegrityViolationException tooLong = catchThrowableOfType(() -> jdbcTemplate.getJdbcTemplate().update(
+                "INSERT INTO member (username, password, nickname, activated, profile_version) VALUES ('import-other', ?, 'x', TRUE, 0)",
+                "x".repeat(300)),
+            DataIntegrityViolationException.class);
+
+        assertThat(MemberService.isUsernameConstraintViolation(duplicate)).isTrue();
+        assertThat(MemberService.isUsernameConstraintViolation(tooLong)).isFalse();
+    }
+}
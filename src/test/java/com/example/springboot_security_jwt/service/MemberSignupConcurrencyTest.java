@@ -0,0 +1,104 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.MemberDto;
+import com.example.springboot_security_jwt.exception.DuplicateMemberException;
+import com.example.springboot_security_jwt.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 여러 스레드가 동시에 가입할 때 username 중복이 유니크 제약 조건으로 올바르게 걸러지는지 확인한다.
+// 모든 스레드가 CountDownLatch에서 기다렸다가 한꺼번에 signup()을 호출한다.
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberSignupConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void concurrentSignupsWithSameUsernameCreateExactlyOneMember() throws Exception {
+        List<Object> results = signupConcurrently(i -> "same-user");
+
+        long created = results.stream().filter(MemberDto.class::isInstance).count();
+        long duplicates = results.stream().filter(DuplicateMemberException.class::isInstance).count();
+        assertThat(created).isEqualTo(1);
+        assertThat(duplicates).isEqualTo(THREADS - 1);
+        assertThat(memberRepository.existsByUsername("same-user")).isTrue();
+    }
+
+    @Test
+    void concurrentSignupsWithDistinctUsernamesAllSucceed() throws Exception {
+        List<Object> results = signupConcurrently(i -> "distinct-user-" + i);
+
+        assertThat(results).allMatch(MemberDto.class::isInstance);
+        for (int i = 0; i < THREADS; i++) {
+            assertThat(memberRepository.existsByUsername("distinct-user-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void duplicateSignupRespondsWithConflict() throws Exception {
+        String body = "{\"username\":\"conflict-user\",\"password\":\"password\",\"nickname\":\"nickname\"}";
+
+        mockMvc.perform(post("/api/signup").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/signup").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isConflict());
+    }
+
+    // 각 스레드의 결과(MemberDto 또는 DuplicateMemberException)를 반환한다.
+    // 그 밖의 예외가 발생하면 Future.get()에서 ExecutionException으로 테스트가 실패한다.
+    private List<Object> signupConcurrently(IntFunction<String> username) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                MemberDto memberDto = MemberDto.builder()
+                    .username(username.apply(i))
+                    .password("password")
+                    .nickname("nickname")
+                    .build();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return memberService.signup(memberDto);
+                    }
+                    catch (DuplicateMemberException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
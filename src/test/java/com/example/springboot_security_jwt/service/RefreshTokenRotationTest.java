@@ -0,0 +1,103 @@
+package com.example.springboot_security_jwt.service;
+
+import com.example.springboot_security_jwt.dto.TokenDto;
+import com.example.springboot_security_jwt.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// refresh token 회전, 재사용 감지, family 폐기를 확인한다.
+// 같은 토큰으로 여러 스레드가 동시에 회전을 요청하면 정확히 하나만 성공하고, 나머지는 재사용으로 처리되어야 한다.
+@SpringBootTest
+class RefreshTokenRotationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void rotationIssuesNewPairAndRejectsOldToken() {
+        String refreshToken = refreshTokenService.issue("admin");
+
+        TokenDto rotated = refreshTokenService.rotate(refreshToken, null);
+
+        assertThat(rotated.getToken()).isNotBlank();
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThat(refreshTokenService.rotate(rotated.getRefreshToken(), null).getRefreshToken()).isNotBlank();
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        String refreshToken = refreshTokenService.issue("admin");
+        TokenDto rotated = refreshTokenService.rotate(refreshToken, null);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken, null))
+            .isInstanceOf(InvalidRefreshTokenException.class);
+        // 재사용이 감지되면 정상적으로 회전된 최신 토큰도 폐기된다.
+        assertThatThrownBy(() -> refreshTokenService.rotate(rotated.getRefreshToken(), null))
+            .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void unrelatedFamilyIsNotRevoked() {
+        String reused = refreshTokenService.issue("admin");
+        String other = refreshTokenService.issue("admin");
+        refreshTokenService.rotate(reused, null);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(reused, null))
+            .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(refreshTokenService.rotate(other, null).getRefreshToken()).isNotBlank();
+    }
+
+    @Test
+    void concurrentRotationWithSameTokenSucceedsOnce() throws Exception {
+        String refreshToken = refreshTokenService.issue("admin");
+
+        List<Object> results = rotateConcurrently(refreshToken);
+
+        List<TokenDto> rotated = results.stream().filter(TokenDto.class::isInstance).map(TokenDto.class::cast).toList();
+        long rejected = results.stream().filter(InvalidRefreshTokenException.class::isInstance).count();
+        assertThat(rotated).hasSize(1);
+        assertThat(rejected).isEqualTo(THREADS - 1);
+        // 동시 재사용도 탈취로 보므로, 이긴 요청이 받은 새 토큰까지 family 전체가 폐기된다.
+        assertThatThrownBy(() -> refreshTokenService.rotate(rotated.get(0).getRefreshToken(), null))
+            .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    // 각 스레드의 결과(TokenDto 또는 InvalidRefreshTokenException)를 반환한다.
+    private List<Object> rotateConcurrently(String refreshToken) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return refreshTokenService.rotate(refreshToken, null);
+                    }
+                    catch (InvalidRefreshTokenException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
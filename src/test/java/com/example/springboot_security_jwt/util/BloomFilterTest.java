@@ -0,0 +1,81 @@
+package com.example.springboot_security_jwt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 추가된 값은 항상 "있을 수도 있음"으로 답해야 하고(false negative 없음), 오탐률은 정한 값 근처여야 한다.
+class BloomFilterTest {
+    private static final int INSERTIONS = 10_000;
+
+    @Test
+    void insertedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        List<String> values = randomValues(INSERTIONS);
+        values.forEach(filter::put);
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        randomValues(INSERTIONS).forEach(filter::put);
+
+        long falsePositives = randomValues(100_000).stream().filter(filter::mightContain).count();
+
+        // 목표 1%에 여유를 두고 3%를 넘지 않는지만 본다.
+        assertThat(falsePositives).isLessThan(3_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+        assertThat(randomValues(1_000)).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        int threads = 8;
+        BloomFilter filter = new BloomFilter(INSERTIONS * threads, 0.01);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    List<String> values = randomValues(INSERTIONS);
+                    start.await();
+                    values.forEach(filter::put);
+                    return values;
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<String>> future : futures) {
+                assertThat(future.get(60, TimeUnit.SECONDS)).allMatch(filter::mightContain);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> randomValues(int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(UUID.randomUUID().toString());
+        }
+        return values;
+    }
+}